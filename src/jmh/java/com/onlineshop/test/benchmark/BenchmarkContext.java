@@ -0,0 +1,93 @@
+package com.onlineshop.test.benchmark;
+
+import com.onlineshop.test.TestApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Приложение на PostgreSQL в Testcontainers для бенчмарков сервисов и эндпоинтов
+public final class BenchmarkContext implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(PostgreSQLContainer<?> postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    public static BenchmarkContext start(WebApplicationType webApplicationType, String... properties) {
+        var postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        var args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.r2dbc.url=r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort()
+                        + "/" + postgres.getDatabaseName(),
+                "--spring.r2dbc.username=" + postgres.getUsername(),
+                "--spring.r2dbc.password=" + postgres.getPassword(),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--server.port=0"));
+        for (var property : properties) {
+            args.add("--" + property);
+        }
+
+        var context = new SpringApplicationBuilder(TestApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+        return new BenchmarkContext(postgres, context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port", "0"));
+    }
+
+    // Наполнение базы: справочники и заказы по одному клиенту/сотруднику генерируются на стороне PostgreSQL
+    public void seed(int customers, int ordersPerCustomer) {
+        var jdbc = bean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO departments (name, location) VALUES ('Sales', 'Tashkent')");
+        jdbc.update("""
+                INSERT INTO employees (name, position, salary, department_id)
+                SELECT 'Employee ' || g, 'Manager', 1000, (SELECT min(id) FROM departments)
+                FROM generate_series(1, 10) g
+                """);
+        jdbc.update("""
+                INSERT INTO products (name, price)
+                SELECT 'Product ' || g, 10 + g % 100
+                FROM generate_series(1, 1000) g
+                """);
+        jdbc.update("INSERT INTO customers (name, city) SELECT 'Customer ' || g, 'Tashkent' FROM generate_series(1, ?) g",
+                customers);
+        jdbc.update("""
+                INSERT INTO orders (created_at, updated_at, amount, customer_id, employee_id)
+                SELECT now() - g * interval '1 minute', now(), 100, c.id,
+                       (SELECT min(id) FROM employees)
+                FROM customers c, generate_series(1, ?) g
+                """, ordersPerCustomer);
+        jdbc.update("ANALYZE");
+    }
+
+    // ID строки по порядковому номеру: значения последовательностей идут с шагом пула, а не подряд
+    public long idAt(String table, int offset) {
+        return bean(JdbcTemplate.class)
+                .queryForObject("SELECT id FROM " + table + " ORDER BY id OFFSET ? LIMIT 1", Long.class, offset);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        postgres.stop();
+    }
+}
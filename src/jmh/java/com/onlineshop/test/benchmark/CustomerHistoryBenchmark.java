@@ -0,0 +1,79 @@
+package com.onlineshop.test.benchmark;
+
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+
+import java.util.concurrent.TimeUnit;
+
+// История заказов клиента: время страницы не должно зависеть ни от размера истории, ни от глубины курсора
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerHistoryBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int WALK_PAGE_SIZE = 500;
+
+    @Param({"1000", "10000", "100000"})
+    int historySize;
+
+    BenchmarkContext context;
+    OrderService orderService;
+    long customerId;
+    String middleCursor;
+    String lastCursor;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(WebApplicationType.NONE);
+        context.seed(1, historySize);
+
+        orderService = context.bean(OrderService.class);
+        customerId = context.idAt("customers", 0);
+
+        // Курсоры середины и конца истории получаем обходом страниц, как это делал бы клиент
+        String cursor = null;
+        var walked = 0;
+        do {
+            cursor = orderService.getCustomerOrders(customerId, cursor, WALK_PAGE_SIZE).next();
+            walked += WALK_PAGE_SIZE;
+            if (middleCursor == null && walked >= historySize / 2) {
+                middleCursor = cursor;
+            }
+            if (cursor != null && walked + PAGE_SIZE < historySize) {
+                lastCursor = cursor;
+            }
+        } while (cursor != null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponse<OrderResponse> firstPage() {
+        return orderService.getCustomerOrders(customerId, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PageResponse<OrderResponse> middlePage() {
+        return orderService.getCustomerOrders(customerId, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PageResponse<OrderResponse> lastPage() {
+        return orderService.getCustomerOrders(customerId, lastCursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,128 @@
+package com.onlineshop.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.onlineshop.test.repository.OutboxEvent;
+import com.onlineshop.test.service.MailTemplates;
+import com.onlineshop.test.service.OrderCreatedEvent;
+import com.onlineshop.test.service.OrderMailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Письма с подтверждением заказа через весь конвейер OrderMailService: чтение клиентов и продуктов, шаблон,
+// пул отправителей и пачки на SMTP-сервер в процессе (GreenMail). Результат - писем в секунду;
+// batchSize=1 - соединение на каждое письмо
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MailBenchmark {
+
+    private static final int MAILS = 200;
+
+    @Param({"1", "50"})
+    int batchSize;
+
+    @Param({"1", "4"})
+    int senders;
+
+    GreenMail greenMail;
+    BenchmarkContext context;
+    OrderMailService orderMailService;
+    MailTemplates.Template template;
+    Map<String, Object> values;
+    List<OutboxEvent> events;
+
+    @Setup
+    public void setUp() throws Exception {
+        greenMail = new GreenMail(ServerSetupTest.SMTP)
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        greenMail.start();
+
+        // Очередь и таймаут с запасом: отклонённая или просроченная пачка не должна попасть в результат
+        context = BenchmarkContext.start(WebApplicationType.NONE,
+                "spring.mail.host=localhost",
+                "spring.mail.port=" + ServerSetupTest.SMTP.getPort(),
+                "spring.mail.properties.mail.smtp.auth=false",
+                "spring.mail.properties.mail.smtp.starttls.enable=false",
+                "order-mail.batch-size=" + batchSize,
+                "order-mail.senders=" + senders,
+                "order-mail.queue-capacity=" + MAILS,
+                "order-mail.timeout=1m");
+        context.seed(MAILS, 0);
+        orderMailService = context.bean(OrderMailService.class);
+        events = events(context.bean(JdbcTemplate.class), context.bean(ObjectMapper.class));
+
+        template = context.bean(MailTemplates.class).get("order-confirmation");
+        values = Map.of(
+                "orderId", 1L,
+                "customerName", "John",
+                "createdAt", "01.01.2026 12:00",
+                "lines", "- Console x 2: 1000 USD",
+                "amount", 1000L,
+                "currency", "USD");
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAILS)
+    public Map<Long, Exception> handleBatch() {
+        var failures = orderMailService.handleBatch(events);
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(failures.size() + " of " + MAILS + " mails failed: "
+                    + failures.values().iterator().next());
+        }
+        return failures;
+    }
+
+    @Benchmark
+    public String renderCachedTemplate() {
+        return template.body().render(values);
+    }
+
+    // Заказ на каждого клиента с двумя позициями; у клиентов из seed нет email, он проставляется здесь
+    private static List<OutboxEvent> events(JdbcTemplate jdbc, ObjectMapper objectMapper) throws Exception {
+        jdbc.update("UPDATE customers SET email = 'customer' || id || '@example.com'");
+        var customerIds = jdbc.queryForList("SELECT id FROM customers ORDER BY id", Long.class);
+        var productIds = jdbc.queryForList("SELECT id FROM products ORDER BY id LIMIT 2", Long.class);
+
+        var events = new ArrayList<OutboxEvent>();
+        for (int i = 0; i < customerIds.size(); i++) {
+            long orderId = i + 1;
+            var payload = new OrderCreatedEvent(orderId, LocalDateTime.now(), 1000L, null, customerIds.get(i),
+                    List.of(new OrderCreatedEvent.Line(productIds.get(0), 2L, 600L),
+                            new OrderCreatedEvent.Line(productIds.get(1), 1L, 400L)));
+            events.add(new OutboxEvent(orderId, OrderCreatedEvent.TYPE, orderId, OrderMailService.NAME,
+                    objectMapper.writeValueAsString(payload), 1));
+        }
+        return events;
+    }
+}
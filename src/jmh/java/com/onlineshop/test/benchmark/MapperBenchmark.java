@@ -0,0 +1,60 @@
+package com.onlineshop.test.benchmark;
+
+import com.onlineshop.test.dto.response.EmployeeResponse;
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.entity.Customer;
+import com.onlineshop.test.entity.Department;
+import com.onlineshop.test.entity.Employee;
+import com.onlineshop.test.entity.Order;
+import com.onlineshop.test.mapper.EmployeeMapper;
+import com.onlineshop.test.mapper.OrderMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Маппинг сущностей в ответы MapStruct-мапперами
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    OrderMapper orderMapper;
+    EmployeeMapper employeeMapper;
+    Order order;
+    Employee employee;
+
+    @Setup
+    public void setUp() {
+        orderMapper = Mappers.getMapper(OrderMapper.class);
+        employeeMapper = Mappers.getMapper(EmployeeMapper.class);
+
+        var department = new Department(1L, "Sales", "Tashkent", 0L);
+        var manager = new Employee(1L, "Alice", "Head", 5000L, department, null, 0L);
+        employee = new Employee(2L, "Bob", "Manager", 3000L, department, manager, 0L);
+
+        order = new Order();
+        order.setId(1L);
+        order.setAmount(1500L);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setCustomer(new Customer(1L, "John", "New York", "john@example.com", 0L));
+        order.setEmployee(employee);
+    }
+
+    @Benchmark
+    public OrderResponse orderToResponse() {
+        return orderMapper.toResponse(order);
+    }
+
+    @Benchmark
+    public EmployeeResponse employeeToResponse() {
+        return employeeMapper.toResponse(employee);
+    }
+}
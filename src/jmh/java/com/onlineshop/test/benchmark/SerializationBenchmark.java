@@ -0,0 +1,55 @@
+package com.onlineshop.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.entity.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Сериализация страниц заказов Jackson с настройками как у Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"50", "500", "10000"})
+    int size;
+
+    ObjectMapper objectMapper;
+    PageResponse<OrderResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        var now = LocalDateTime.now();
+        List<OrderResponse> orders = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new OrderResponse(id, 100L * id, "Customer " + id, "Employee " + id, now, OrderStatus.PAID, 0L))
+                .toList();
+        page = new PageResponse<>(orders, String.valueOf(size));
+    }
+
+    @Benchmark
+    public void writeOrderPage() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
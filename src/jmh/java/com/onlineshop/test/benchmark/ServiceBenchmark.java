@@ -0,0 +1,87 @@
+package com.onlineshop.test.benchmark;
+
+import com.onlineshop.test.dto.response.DepartmentResponse;
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.dto.response.ProductResponse;
+import com.onlineshop.test.service.DepartmentService;
+import com.onlineshop.test.service.OrderService;
+import com.onlineshop.test.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+
+import java.util.concurrent.TimeUnit;
+
+// Сервисные методы на реальном PostgreSQL (Testcontainers).
+// cached=false выключает кэши сервисов (entity-cache) и второй уровень Hibernate: чтение по ID идёт через JPA
+// в базу на каждом вызове, а не в Caffeine
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+    @Param({"true", "false"})
+    boolean cached;
+
+    BenchmarkContext context;
+    OrderService orderService;
+    ProductService productService;
+    DepartmentService departmentService;
+    long productId;
+    long departmentId;
+    String deepCursor;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(WebApplicationType.NONE,
+                "entity-cache.caches.products.enabled=" + cached,
+                "entity-cache.caches.departments.enabled=" + cached,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cached,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + cached);
+        context.seed(1000, 10);
+
+        orderService = context.bean(OrderService.class);
+        productService = context.bean(ProductService.class);
+        departmentService = context.bean(DepartmentService.class);
+        productId = context.idAt("products", 0);
+        departmentId = context.idAt("departments", 0);
+
+        // Курсор непрозрачен, поэтому до 9000-го заказа доходим постранично
+        for (int page = 0; page < 18; page++) {
+            deepCursor = orderService.getAllOrders(deepCursor, 500).next();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponse<OrderResponse> getOrdersPage() {
+        return orderService.getAllOrders(null, 50);
+    }
+
+    @Benchmark
+    public PageResponse<OrderResponse> getOrdersDeepPage() {
+        return orderService.getAllOrders(deepCursor, 50);
+    }
+
+    @Benchmark
+    public ProductResponse getProductById() {
+        return productService.getProductById(productId);
+    }
+
+    @Benchmark
+    public DepartmentResponse getDepartmentById() {
+        return departmentService.getDepartmentById(departmentId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.onlineshop.test.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String PRODUCTS = "products";
+    public static final String DEPARTMENTS = "departments";
+
+    // Caffeine (W-TinyLFU) с ограничением размера и TTL, статистика попаданий уходит в метрики actuator
+    @Bean
+    public CacheManager cacheManager(EntityCacheProperties properties) {
+        var caches = (properties.caches() == null ? Map.<String, EntityCacheProperties.Spec>of() : properties.caches())
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().enabled())
+                .map(entry -> new CaffeineCache(entry.getKey(), Caffeine.newBuilder()
+                        .maximumSize(entry.getValue().maximumSize())
+                        .expireAfterWrite(entry.getValue().ttl())
+                        .recordStats()
+                        .build()))
+                .toList();
+
+        var caffeineCacheManager = new SimpleCacheManager();
+        caffeineCacheManager.setCaches(caches);
+        caffeineCacheManager.initializeCaches();
+
+        var cacheManager = new CompositeCacheManager(caffeineCacheManager);
+        cacheManager.setFallbackToNoOpCache(true);
+        return cacheManager;
+    }
+}
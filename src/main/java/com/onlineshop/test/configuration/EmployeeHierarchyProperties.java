@@ -0,0 +1,12 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "employee-hierarchy")
+public record EmployeeHierarchyProperties(
+        @DefaultValue("false") boolean indexEnabled,
+        @DefaultValue("5m") Duration indexTtl
+) {}
@@ -0,0 +1,20 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "entity-cache")
+public record EntityCacheProperties(
+        Map<String, Spec> caches
+) {
+
+    // Настройки отдельного кэша: выключенный кэш заменяется no-op реализацией
+    public record Spec(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("10m") Duration ttl
+    ) {}
+}
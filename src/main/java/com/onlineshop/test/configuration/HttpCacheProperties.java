@@ -0,0 +1,33 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "http-cache")
+public record HttpCacheProperties(
+        Map<String, Policy> controllers
+) {
+
+    // Без настроенной политики ответ можно хранить, но перед использованием нужно перепроверить (no-cache)
+    public CacheControl cacheControl(String controller) {
+        var policy = controllers != null ? controllers.get(controller) : null;
+        if (policy == null) {
+            return CacheControl.noCache().cachePrivate();
+        }
+
+        var cacheControl = policy.maxAge().isZero() ? CacheControl.noCache() : CacheControl.maxAge(policy.maxAge());
+        cacheControl = policy.shared() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+        return policy.mustRevalidate() ? cacheControl.mustRevalidate() : cacheControl;
+    }
+
+    // Политика Cache-Control контроллера: max-age 0 - каждый запрос перепроверяется по ETag
+    public record Policy(
+            @DefaultValue("0s") Duration maxAge,
+            @DefaultValue("false") boolean shared,
+            @DefaultValue("false") boolean mustRevalidate
+    ) {}
+}
@@ -0,0 +1,12 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "inventory")
+public record InventoryProperties(
+        @DefaultValue("10m") Duration reservationTtl,
+        @DefaultValue("1000") int releaseBatchSize
+) {}
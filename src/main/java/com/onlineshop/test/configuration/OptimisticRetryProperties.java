@@ -0,0 +1,12 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "optimistic-retry")
+public record OptimisticRetryProperties(
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("20ms") Duration backoff
+) {}
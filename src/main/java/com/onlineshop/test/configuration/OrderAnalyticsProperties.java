@@ -0,0 +1,14 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "order-analytics")
+public record OrderAnalyticsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("90d") Duration window,
+        @DefaultValue("65536") int chunkSize,
+        @DefaultValue("10000") int fetchSize
+) {}
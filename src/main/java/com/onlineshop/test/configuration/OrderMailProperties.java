@@ -0,0 +1,16 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "order-mail")
+public record OrderMailProperties(
+        @DefaultValue("no-reply@onlineshop.com") String from,
+        @DefaultValue("order-confirmation") String template,
+        @DefaultValue("50") int batchSize,
+        @DefaultValue("1") int senders,
+        @DefaultValue("20") int queueCapacity,
+        @DefaultValue("30s") Duration timeout
+) {}
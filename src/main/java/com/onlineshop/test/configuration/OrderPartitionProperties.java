@@ -0,0 +1,11 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "order-partitions")
+public record OrderPartitionProperties(
+        @DefaultValue("3") int monthsAhead,
+        @DefaultValue("24") int retentionMonths,
+        @DefaultValue("archive") String archiveSchema
+) {}
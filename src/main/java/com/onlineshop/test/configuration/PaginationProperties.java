@@ -0,0 +1,20 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "pagination")
+public record PaginationProperties(
+        @DefaultValue("50") int defaultSize,
+        @DefaultValue("500") int maxSize
+) {
+
+    // Размер страницы с учётом значения по умолчанию и верхней границы
+    public int resolve(Integer size) {
+        if (size == null) {
+            return Math.min(defaultSize, maxSize);
+        }
+
+        return Math.max(1, Math.min(size, maxSize));
+    }
+}
@@ -0,0 +1,32 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "payment")
+public record PaymentProperties(
+        @DefaultValue("mock") String gateway,
+        @DefaultValue("USD") String currency,
+        @DefaultValue("10.00") BigDecimal minAmount,
+        @DefaultValue("50") int batchSize,
+        @DefaultValue("4") int maxConcurrency,
+        @DefaultValue("5s") Duration timeout,
+        @DefaultValue CircuitBreaker circuitBreaker,
+        @DefaultValue Mock mock
+) {
+
+    // Подряд идущие сбои шлюза, после которых вызовы прекращаются на open-duration
+    public record CircuitBreaker(
+            @DefaultValue("5") int failureThreshold,
+            @DefaultValue("30s") Duration openDuration
+    ) {}
+
+    // Локальный шлюз вместо настоящего: задержка одного запроса и размер пачки
+    public record Mock(
+            @DefaultValue("50ms") Duration latency,
+            @DefaultValue("100") int maxBatchSize
+    ) {}
+}
@@ -0,0 +1,11 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product-search")
+public record ProductSearchProperties(
+        @DefaultValue("10000") int maxCandidates,
+        @DefaultValue("10") int autocompleteSize,
+        @DefaultValue("50") int maxAutocompleteSize
+) {}
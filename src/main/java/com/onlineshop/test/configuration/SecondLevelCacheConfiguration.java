@@ -0,0 +1,45 @@
+package com.onlineshop.test.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfiguration {
+
+    // Отдельный JCache-менеджер на контекст, регионы и их размеры берутся из application.yml
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provider.getCacheManager(
+                URI.create("urn:hibernate-l2:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        if (properties.regions() != null) {
+            properties.regions().forEach((name, region) -> {
+                var configuration = new CaffeineConfiguration<Object, Object>();
+                configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+                configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+                configuration.setStatisticsEnabled(true);
+                cacheManager.createCache(name, configuration);
+            });
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,19 @@
+package com.onlineshop.test.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "second-level-cache")
+public record SecondLevelCacheProperties(
+        Map<String, Region> regions
+) {
+
+    // Регион кэша второго уровня Hibernate
+    public record Region(
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("1h") Duration ttl
+    ) {}
+}
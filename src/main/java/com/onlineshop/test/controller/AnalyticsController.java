@@ -0,0 +1,84 @@
+package com.onlineshop.test.controller;
+
+import com.onlineshop.test.dto.response.DailyRevenueResponse;
+import com.onlineshop.test.dto.response.DepartmentRevenueResponse;
+import com.onlineshop.test.dto.response.EmployeeRevenueResponse;
+import com.onlineshop.test.dto.response.EmployeeSalesResponse;
+import com.onlineshop.test.dto.response.OrderAmountStatsResponse;
+import com.onlineshop.test.dto.response.ProductRevenueResponse;
+import com.onlineshop.test.dto.response.ProductSalesResponse;
+import com.onlineshop.test.service.OrderAnalyticsService;
+import com.onlineshop.test.service.SalesAnalyticsService;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/analytics")
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class AnalyticsController {
+
+    SalesAnalyticsService salesAnalyticsService;
+    OrderAnalyticsService orderAnalyticsService;
+
+    // Выручка и количество заказов по дням
+    @GetMapping("/revenue/daily")
+    public List<DailyRevenueResponse> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return salesAnalyticsService.getDailyRevenue(from, to);
+    }
+
+    // Выручка по продуктам
+    @GetMapping("/revenue/products")
+    public List<ProductRevenueResponse> getProductRevenue(@RequestParam(required = false) Integer size) {
+        return salesAnalyticsService.getTopProducts(size);
+    }
+
+    // Выручка по сотрудникам
+    @GetMapping("/revenue/employees")
+    public List<EmployeeRevenueResponse> getEmployeeRevenue() {
+        return salesAnalyticsService.getEmployeeRevenue();
+    }
+
+    // Выручка по департаментам
+    @GetMapping("/revenue/departments")
+    public List<DepartmentRevenueResponse> getDepartmentRevenue() {
+        return salesAnalyticsService.getDepartmentRevenue();
+    }
+
+    // Выручка по продуктам за последние дни из хранилища в памяти
+    @GetMapping("/recent/products")
+    public List<ProductSalesResponse> getRecentProductSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer size) {
+        return orderAnalyticsService.getProductSales(from, to, size);
+    }
+
+    // Заказы и выручка по сотрудникам за последние дни из хранилища в памяти
+    @GetMapping("/recent/employees")
+    public List<EmployeeSalesResponse> getRecentEmployeeSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return orderAnalyticsService.getEmployeeSales(from, to);
+    }
+
+    // Количество, сумма и перцентили сумм заказов за последние дни
+    @GetMapping("/recent/orders")
+    public OrderAmountStatsResponse getRecentOrderStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return orderAnalyticsService.getAmountStats(from, to);
+    }
+}
@@ -1,22 +1,34 @@
 package com.onlineshop.test.controller;
 
+import com.onlineshop.test.configuration.HttpCacheProperties;
 import com.onlineshop.test.dto.request.CustomerRequest;
+import com.onlineshop.test.dto.response.ImportReport;
 import com.onlineshop.test.dto.response.CustomerResponse;
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.service.CatalogStreamService;
 import com.onlineshop.test.service.CustomerService;
+import com.onlineshop.test.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
-import java.util.List;
+import java.io.InputStream;
 
 @RestController
 @AllArgsConstructor
@@ -25,17 +37,40 @@ import java.util.List;
 public class CustomerController {
 
     CustomerService customerService;
+    CatalogStreamService catalogStreamService;
+    OrderService orderService;
+    HttpCacheProperties httpCacheProperties;
 
     // Получение всех клиентов
     @GetMapping
-    public List<CustomerResponse> getAllCustomers() {
-        return customerService.getAllCustomers();
+    public PageResponse<CustomerResponse> getAllCustomers(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        return customerService.getAllCustomers(cursor, size);
+    }
+
+    // Неблокирующий поток клиентов в NDJSON (R2DBC)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerResponse> streamCustomers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        return catalogStreamService.streamCustomers(cursor, limit);
     }
 
     // Получение клиента по ID
     @GetMapping("/{id}")
-    public CustomerResponse getCustomerById(@PathVariable Long id) {
-        return customerService.getCustomerById(id);
+    public ResponseEntity<CustomerResponse> getCustomerById(@PathVariable Long id) {
+        var response = customerService.getCustomerById(id);
+        return ResponseEntity.ok()
+                .cacheControl(httpCacheProperties.cacheControl("customers"))
+                .eTag(ETags.of(response.version()))
+                .body(response);
+    }
+
+    // История заказов клиента
+    @GetMapping("/{id}/orders")
+    public PageResponse<OrderResponse> getCustomerOrders(@PathVariable Long id,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        return orderService.getCustomerOrders(id, cursor, size);
     }
 
     // Создание нового клиента
@@ -46,8 +81,11 @@ public class CustomerController {
 
     // Обновление существующего клиента
     @PutMapping("/{id}")
-    public CustomerResponse updateCustomer(@PathVariable Long id, @RequestBody @Valid CustomerRequest request) {
-        return customerService.updateCustomer(id, request);
+    public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestBody @Valid CustomerRequest request) {
+        var response = customerService.updateCustomer(id, request, ETags.version(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
     }
 
     // Удаление клиента
@@ -55,4 +93,16 @@ public class CustomerController {
     public void deleteCustomer(@PathVariable Long id) {
         customerService.deleteCustomer(id);
     }
+
+    // Массовый импорт клиентов из JSON-массива
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ImportReport importCustomersJson(InputStream body) {
+        return customerService.importCustomersJson(body);
+    }
+
+    // Массовый импорт клиентов из CSV
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportReport importCustomersCsv(InputStream body) {
+        return customerService.importCustomersCsv(body);
+    }
 }
\ No newline at end of file
@@ -1,23 +1,27 @@
 package com.onlineshop.test.controller;
 
+import com.onlineshop.test.configuration.HttpCacheProperties;
 import com.onlineshop.test.dto.request.DepartmentRequest;
 import com.onlineshop.test.dto.response.DepartmentResponse;
+import com.onlineshop.test.dto.response.PageResponse;
 import com.onlineshop.test.service.DepartmentService;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/departments")
@@ -25,17 +29,23 @@ import java.util.List;
 public class DepartmentController {
 
     DepartmentService departmentService;
+    HttpCacheProperties httpCacheProperties;
 
     // Получение всех департаментов
     @GetMapping
-    public List<DepartmentResponse> getAllDepartments() {
-        return departmentService.getAllDepartments();
+    public PageResponse<DepartmentResponse> getAllDepartments(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        return departmentService.getAllDepartments(cursor, size);
     }
 
     // Получение департамента по ID
     @GetMapping("/{id}")
-    public DepartmentResponse getDepartmentById(@PathVariable Long id) {
-        return departmentService.getDepartmentById(id);
+    public ResponseEntity<DepartmentResponse> getDepartmentById(@PathVariable Long id) {
+        var response = departmentService.getDepartmentById(id);
+        return ResponseEntity.ok()
+                .cacheControl(httpCacheProperties.cacheControl("departments"))
+                .eTag(ETags.of(response.version()))
+                .body(response);
     }
 
     // Создание нового департамента
@@ -46,8 +56,11 @@ public class DepartmentController {
 
     // Обновление департамента
     @PutMapping("/{id}")
-    public DepartmentResponse updateDepartment(@PathVariable Long id, @RequestBody @Valid DepartmentRequest request) {
-        return departmentService.updateDepartment(id, request);
+    public ResponseEntity<DepartmentResponse> updateDepartment(@PathVariable Long id,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                               @RequestBody @Valid DepartmentRequest request) {
+        var response = departmentService.updateDepartment(id, request, ETags.version(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
     }
 
     // Удаление департамента
@@ -0,0 +1,49 @@
+package com.onlineshop.test.controller;
+
+import org.springframework.http.HttpHeaders;
+
+// ETag записи - её версия (@Version) в кавычках, строгий: одна версия - одно представление.
+// If-Match отсутствует или равен * - версия не проверяется; нечисловой или слабый тег не совпадает ни с одной
+// версией: If-Match требует строгого сравнения (RFC 9110)
+final class ETags {
+
+    private static final long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Условный GET: при If-None-Match решает только ETag (слабое сравнение, W/"3" совпадает с "3"),
+    // иначе If-Modified-Since с точностью HTTP-даты до секунды
+    static boolean notModified(HttpHeaders request, Long version, long lastModified) {
+        var ifNoneMatch = request.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            var tag = of(version);
+            return ifNoneMatch.stream()
+                    .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                    .anyMatch(candidate -> "*".equals(candidate) || tag.equals(candidate));
+        }
+
+        var ifModifiedSince = request.getIfModifiedSince();
+        return lastModified >= 0 && ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        var tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            return NO_MATCH;
+        }
+    }
+}
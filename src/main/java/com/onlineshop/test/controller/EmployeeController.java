@@ -1,19 +1,27 @@
 package com.onlineshop.test.controller;
 
+import com.onlineshop.test.configuration.HttpCacheProperties;
 import com.onlineshop.test.dto.request.EmployeeRequest;
+import com.onlineshop.test.dto.response.EmployeeNodeResponse;
 import com.onlineshop.test.dto.response.EmployeeResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.dto.response.PayrollResponse;
 import com.onlineshop.test.service.EmployeeService;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -25,17 +33,47 @@ import java.util.List;
 public class EmployeeController {
 
     EmployeeService employeeService;
+    HttpCacheProperties httpCacheProperties;
 
     // Получение всех сотрудников
     @GetMapping
-    public List<EmployeeResponse> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public PageResponse<EmployeeResponse> getAllEmployees(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        return employeeService.getAllEmployees(cursor, size);
     }
 
     // Получение сотрудника по ID
     @GetMapping("/{id}")
-    public EmployeeResponse getEmployeeById(@PathVariable Long id) {
-        return employeeService.getEmployeeById(id);
+    public ResponseEntity<EmployeeResponse> getEmployeeById(@PathVariable Long id) {
+        var response = employeeService.getEmployeeById(id);
+        return ResponseEntity.ok()
+                .cacheControl(httpCacheProperties.cacheControl("employees"))
+                .eTag(ETags.of(response.version()))
+                .body(response);
+    }
+
+    // Прямые подчинённые сотрудника
+    @GetMapping("/{id}/reports")
+    public List<EmployeeNodeResponse> getDirectReports(@PathVariable Long id) {
+        return employeeService.getDirectReports(id);
+    }
+
+    // Все подчинённые сотрудника на любой глубине
+    @GetMapping("/{id}/subtree")
+    public List<EmployeeNodeResponse> getSubtree(@PathVariable Long id) {
+        return employeeService.getSubtree(id);
+    }
+
+    // Цепочка руководителей до вершины иерархии
+    @GetMapping("/{id}/chain")
+    public List<EmployeeNodeResponse> getManagementChain(@PathVariable Long id) {
+        return employeeService.getManagementChain(id);
+    }
+
+    // Фонд оплаты труда поддерева
+    @GetMapping("/{id}/subtree/payroll")
+    public PayrollResponse getSubtreePayroll(@PathVariable Long id) {
+        return employeeService.getSubtreePayroll(id);
     }
 
     // Создание нового сотрудника
@@ -46,8 +84,11 @@ public class EmployeeController {
 
     // Обновление сущности сотрудника
     @PutMapping("/{id}")
-    public EmployeeResponse updateEmployee(@PathVariable Long id, @RequestBody @Valid EmployeeRequest request) {
-        return employeeService.updateEmployee(id, request);
+    public ResponseEntity<EmployeeResponse> updateEmployee(@PathVariable Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestBody @Valid EmployeeRequest request) {
+        var response = employeeService.updateEmployee(id, request, ETags.version(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
     }
 
     // Удаление сотрудника
@@ -55,4 +96,4 @@ public class EmployeeController {
     public void deleteEmployee(@PathVariable Long id) {
         employeeService.deleteEmployee(id);
     }
-}
\ No newline at end of file
+}
@@ -1,22 +1,36 @@
 package com.onlineshop.test.controller;
 
+import com.onlineshop.test.configuration.HttpCacheProperties;
+import com.onlineshop.test.dto.request.ExportFormat;
+import com.onlineshop.test.dto.request.OrderExportFilter;
 import com.onlineshop.test.dto.request.OrderRequest;
 import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.service.OrderExportService;
 import com.onlineshop.test.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @RestController
 @AllArgsConstructor
@@ -25,17 +39,63 @@ import java.util.List;
 public class OrderController {
 
     OrderService orderService;
+    OrderExportService orderExportService;
+    HttpCacheProperties httpCacheProperties;
 
     // Получение всех заказов
     @GetMapping
-    public List<OrderResponse> getAllOrders() {
-        return orderService.getAllOrders();
+    public PageResponse<OrderResponse> getAllOrders(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        return orderService.getAllOrders(cursor, size);
     }
 
-    // Получение заказа по ID
+    // Потоковая выгрузка заказов в NDJSON или CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long customerId) {
+        var exportFormat = ExportFormat.of(format);
+        var filter = new OrderExportFilter(from, to, customerId);
+        var disposition = ContentDisposition.attachment()
+                .filename("orders." + exportFormat.extension())
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(out -> orderExportService.export(filter, exportFormat, out));
+    }
+
+    // Получение заказа по ID. Сначала читаются только версия и updatedAt: если ETag или Last-Modified клиента
+    // актуальны, ответ 304 обходится без чтения заказа с клиентом и сотрудником и без сериализации
     @GetMapping("/{id}")
-    public OrderResponse getOrderById(@PathVariable Long id) {
-        return orderService.getOrderById(id);
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        var cacheControl = httpCacheProperties.cacheControl("orders");
+        var version = orderService.getOrderVersion(id);
+        var lastModified = version.updatedAt() != null
+                ? version.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1L;
+        if (ETags.notModified(headers, version.version(), lastModified)) {
+            var notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(ETags.of(version.version()));
+            if (lastModified >= 0) {
+                notModified.lastModified(lastModified);
+            }
+            return notModified.build();
+        }
+
+        var response = orderService.getOrderById(id);
+        var ok = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(ETags.of(response.version()));
+        // Заказ мог измениться между двумя чтениями: тогда Last-Modified относится к другой версии
+        if (lastModified >= 0 && response.version().equals(version.version())) {
+            ok.lastModified(lastModified);
+        }
+        return ok.body(response);
     }
 
     // Создание нового заказа
@@ -46,8 +106,11 @@ public class OrderController {
 
     // Обновление заказа
     @PutMapping("/{id}")
-    public OrderResponse updateOrder(@PathVariable Long id, @RequestBody @Valid OrderRequest request) {
-        return orderService.updateOrder(id, request);
+    public ResponseEntity<OrderResponse> updateOrder(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestBody @Valid OrderRequest request) {
+        var response = orderService.updateOrder(id, request, ETags.version(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
     }
 
     // Удаление заказа
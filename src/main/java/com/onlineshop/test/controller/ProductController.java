@@ -1,21 +1,37 @@
 package com.onlineshop.test.controller;
 
+import com.onlineshop.test.configuration.HttpCacheProperties;
+import com.onlineshop.test.dto.request.ProductFilter;
 import com.onlineshop.test.dto.request.ProductRequest;
+import com.onlineshop.test.dto.request.StockRequest;
+import com.onlineshop.test.dto.response.ImportReport;
+import com.onlineshop.test.dto.response.PageResponse;
 import com.onlineshop.test.dto.response.ProductResponse;
+import com.onlineshop.test.dto.response.ProductSearchResponse;
+import com.onlineshop.test.dto.response.StockResponse;
+import com.onlineshop.test.service.CatalogStreamService;
+import com.onlineshop.test.service.InventoryService;
 import com.onlineshop.test.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -25,17 +41,69 @@ import java.util.List;
 public class ProductController {
 
     ProductService productService;
+    CatalogStreamService catalogStreamService;
+    InventoryService inventoryService;
+    HttpCacheProperties httpCacheProperties;
 
     // Получение всех продуктов
     @GetMapping
-    public List<ProductResponse> getAllProducts() {
-        return productService.getAllProducts();
+    public PageResponse<ProductResponse> getAllProducts(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        return productService.getAllProducts(cursor, size);
     }
 
-    // Получение продукта по ID
+    // Неблокирующий поток продуктов в NDJSON (R2DBC)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponse> streamProducts(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return catalogStreamService.streamProducts(cursor, limit);
+    }
+
+    // Каталог: фильтр по цене, сортировка price, -price, name или -name
+    @GetMapping("/catalog")
+    public PageResponse<ProductResponse> getCatalog(@RequestParam(required = false) Long minPrice,
+                                                    @RequestParam(required = false) Long maxPrice,
+                                                    @RequestParam(defaultValue = "price") String sort,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        return productService.getCatalog(new ProductFilter(minPrice, maxPrice), sort, cursor, size);
+    }
+
+    // Полнотекстовый поиск продуктов с ранжированием
+    @GetMapping("/search")
+    public PageResponse<ProductSearchResponse> searchProducts(@RequestParam("q") String query,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        return productService.searchProducts(query, cursor, size);
+    }
+
+    // Автодополнение названий продуктов
+    @GetMapping("/autocomplete")
+    public List<ProductResponse> autocompleteProducts(@RequestParam("q") String query,
+                                                      @RequestParam(required = false) Integer size) {
+        return productService.autocompleteProducts(query, size);
+    }
+
+    // Получение продукта по ID из кэша; с актуальным If-None-Match ответ 304 без тела
     @GetMapping("/{id}")
-    public ProductResponse getProductById(@PathVariable Long id) {
-        return productService.getProductById(id);
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+        var response = productService.getProductById(id);
+        return ResponseEntity.ok()
+                .cacheControl(httpCacheProperties.cacheControl("products"))
+                .eTag(ETags.of(response.version()))
+                .body(response);
+    }
+
+    // Остаток продукта на складе
+    @GetMapping("/{id}/stock")
+    public StockResponse getStock(@PathVariable Long id) {
+        return inventoryService.getStock(id);
+    }
+
+    // Установка остатка продукта
+    @PutMapping("/{id}/stock")
+    public StockResponse setStock(@PathVariable Long id, @RequestBody @Valid StockRequest request) {
+        return inventoryService.setStock(id, request);
     }
 
     // Создание нового продукта
@@ -46,8 +114,11 @@ public class ProductController {
 
     // Обновление продукта
     @PutMapping("/{id}")
-    public ProductResponse updateProduct(@PathVariable Long id, @RequestBody @Valid ProductRequest request) {
-        return productService.updateProduct(id, request);
+    public ResponseEntity<ProductResponse> updateProduct(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody @Valid ProductRequest request) {
+        var response = productService.updateProduct(id, request, ETags.version(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.version())).body(response);
     }
 
     // Удаление продукта
@@ -55,4 +126,16 @@ public class ProductController {
     public void deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
     }
+
+    // Массовый импорт продуктов из JSON-массива
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ImportReport importProductsJson(InputStream body) {
+        return productService.importProductsJson(body);
+    }
+
+    // Массовый импорт продуктов из CSV
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportReport importProductsCsv(InputStream body) {
+        return productService.importProductsCsv(body);
+    }
 }
\ No newline at end of file
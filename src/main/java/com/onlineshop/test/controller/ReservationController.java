@@ -0,0 +1,38 @@
+package com.onlineshop.test.controller;
+
+import com.onlineshop.test.dto.request.ReservationRequest;
+import com.onlineshop.test.dto.response.ReservationResponse;
+import com.onlineshop.test.service.InventoryService;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/reservations")
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ReservationController {
+
+    InventoryService inventoryService;
+
+    // Резервирование товара перед оформлением заказа
+    @PostMapping
+    public ReservationResponse reserve(@RequestBody @Valid ReservationRequest request) {
+        return inventoryService.reserve(request);
+    }
+
+    // Досрочное снятие резервирования
+    @DeleteMapping("/{id}")
+    public void release(@PathVariable UUID id) {
+        inventoryService.release(id);
+    }
+}
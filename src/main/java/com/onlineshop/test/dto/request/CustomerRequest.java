@@ -1,5 +1,6 @@
 package com.onlineshop.test.dto.request;
 
+import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -11,4 +12,7 @@ public class CustomerRequest {
 
     @NotBlank(message = "Город клиента не может быть пустым")
     private String city;
+
+    @Email(message = "Некорректный email клиента")
+    private String email;
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.onlineshop.test.dto.request;
+
+import java.time.LocalDateTime;
+
+public record OrderExportFilter(
+        LocalDateTime from,
+        LocalDateTime to,
+        Long customerId
+) {}
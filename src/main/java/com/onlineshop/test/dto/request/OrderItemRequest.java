@@ -0,0 +1,18 @@
+package com.onlineshop.test.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class OrderItemRequest {
+
+    @NotNull(message = "ID продукта не может быть null")
+    private Long productId;
+
+    @Positive(message = "Количество должно быть больше нуля")
+    @Max(value = 1_000_000, message = "Количество не может быть больше 1000000")
+    @NotNull(message = "Количество не может быть null")
+    private Long quantity;
+}
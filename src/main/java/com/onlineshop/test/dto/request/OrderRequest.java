@@ -1,24 +1,27 @@
 package com.onlineshop.test.dto.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
-import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @Data
 public class OrderRequest {
 
-    @Positive(message = "Сумма заказа должна быть положительным числом")
-    @NotNull(message = "Сумма заказа не может быть null")
-    private Long amount;
-
     @NotNull(message = "ID клиента не может быть null")
     private Long customerId;
 
     @NotNull(message = "ID сотрудника не может быть null")
     private Long employeeId;
 
-    @NotNull(message = "Дата создания не может быть null")
-    private LocalDateTime updatedAt;
-}
\ No newline at end of file
+    // Сумма заказа считается на сервере по ценам продуктов
+    @Valid
+    @NotEmpty(message = "Заказ должен содержать хотя бы одну позицию")
+    private List<OrderItemRequest> items;
+
+    // Резервирование, полученное до оформления; без него товар списывается при создании заказа
+    private UUID reservationId;
+}
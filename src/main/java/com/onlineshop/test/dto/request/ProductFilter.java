@@ -0,0 +1,6 @@
+package com.onlineshop.test.dto.request;
+
+public record ProductFilter(
+        Long minPrice,
+        Long maxPrice
+) {}
@@ -0,0 +1,45 @@
+package com.onlineshop.test.dto.request;
+
+import com.onlineshop.test.exception.UnsupportedSortException;
+import org.springframework.data.domain.Sort;
+
+// Сортировка каталога: поле и направление, id добавляется для однозначного порядка keyset-пагинации
+public enum ProductSort {
+
+    PRICE("price", "price", Sort.Direction.ASC),
+    PRICE_DESC("-price", "price", Sort.Direction.DESC),
+    NAME("name", "name", Sort.Direction.ASC),
+    NAME_DESC("-name", "name", Sort.Direction.DESC);
+
+    private final String value;
+    private final String attribute;
+    private final Sort.Direction direction;
+
+    ProductSort(String value, String attribute, Sort.Direction direction) {
+        this.value = value;
+        this.attribute = attribute;
+        this.direction = direction;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public boolean descending() {
+        return direction.isDescending();
+    }
+
+    public Sort sort() {
+        return Sort.by(direction, attribute, "id");
+    }
+
+    public static ProductSort of(String value) {
+        for (var sort : values()) {
+            if (sort.value.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+
+        throw new UnsupportedSortException(value);
+    }
+}
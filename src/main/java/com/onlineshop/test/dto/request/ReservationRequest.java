@@ -0,0 +1,15 @@
+package com.onlineshop.test.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReservationRequest {
+
+    @Valid
+    @NotEmpty(message = "Резервирование должно содержать хотя бы одну позицию")
+    private List<OrderItemRequest> items;
+}
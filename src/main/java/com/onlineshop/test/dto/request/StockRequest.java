@@ -0,0 +1,13 @@
+package com.onlineshop.test.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class StockRequest {
+
+    @PositiveOrZero(message = "Остаток не может быть отрицательным")
+    @NotNull(message = "Остаток не может быть null")
+    private Long quantity;
+}
@@ -3,5 +3,7 @@ package com.onlineshop.test.dto.response;
 public record CustomerResponse(
         Long id,
         String name,
-        String city
+        String city,
+        String email,
+        Long version
 ) {}
\ No newline at end of file
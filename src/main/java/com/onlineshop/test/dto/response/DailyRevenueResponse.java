@@ -0,0 +1,9 @@
+package com.onlineshop.test.dto.response;
+
+import java.time.LocalDate;
+
+public record DailyRevenueResponse(
+        LocalDate day,
+        Long orders,
+        Long revenue
+) {}
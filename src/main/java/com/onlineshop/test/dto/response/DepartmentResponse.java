@@ -3,5 +3,6 @@ package com.onlineshop.test.dto.response;
 public record DepartmentResponse(
         Long id,
         String name,
-        String location
+        String location,
+        Long version
 ) {}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.onlineshop.test.dto.response;
+
+public record DepartmentRevenueResponse(
+        Long departmentId,
+        String departmentName,
+        Long orders,
+        Long revenue
+) {}
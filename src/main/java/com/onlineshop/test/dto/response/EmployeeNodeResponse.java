@@ -0,0 +1,10 @@
+package com.onlineshop.test.dto.response;
+
+public record EmployeeNodeResponse(
+        Long id,
+        String name,
+        String position,
+        Long salary,
+        Long managerId,
+        Integer depth
+) {}
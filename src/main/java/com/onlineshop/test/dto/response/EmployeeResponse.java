@@ -6,5 +6,6 @@ public record EmployeeResponse(
         String position,
         Long salary,
         String departmentName,
-        String managerName
+        String managerName,
+        Long version
 ) {}
\ No newline at end of file
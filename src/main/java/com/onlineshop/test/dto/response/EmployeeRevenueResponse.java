@@ -0,0 +1,8 @@
+package com.onlineshop.test.dto.response;
+
+public record EmployeeRevenueResponse(
+        Long employeeId,
+        String employeeName,
+        Long orders,
+        Long revenue
+) {}
@@ -0,0 +1,7 @@
+package com.onlineshop.test.dto.response;
+
+public record EmployeeSalesResponse(
+        Long employeeId,
+        Long orders,
+        Long revenue
+) {}
@@ -0,0 +1,6 @@
+package com.onlineshop.test.dto.response;
+
+public record ImportError(
+        long row,
+        String message
+) {}
@@ -0,0 +1,9 @@
+package com.onlineshop.test.dto.response;
+
+import java.util.List;
+
+public record ImportReport(
+        long imported,
+        long failed,
+        List<ImportError> errors
+) {}
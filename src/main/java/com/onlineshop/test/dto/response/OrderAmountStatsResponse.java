@@ -0,0 +1,10 @@
+package com.onlineshop.test.dto.response;
+
+public record OrderAmountStatsResponse(
+        Long orders,
+        Long revenue,
+        Long p50,
+        Long p90,
+        Long p99,
+        Long max
+) {}
@@ -1,5 +1,7 @@
 package com.onlineshop.test.dto.response;
 
+import com.onlineshop.test.entity.OrderStatus;
+
 import java.time.LocalDateTime;
 
 public record OrderResponse(
@@ -7,5 +9,7 @@ public record OrderResponse(
         Long amount,
         String customerName,
         String employeeName,
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        OrderStatus status,
+        Long version
 ) {}
@@ -0,0 +1,20 @@
+package com.onlineshop.test.dto.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record PageResponse<T>(
+        List<T> content,
+        String next
+) {
+
+    // Страница строится из выборки size + 1: лишняя строка означает, что есть следующая страница
+    public static <T> PageResponse<T> of(List<T> rows, int size, Function<T, String> cursor) {
+        if (rows.size() <= size) {
+            return new PageResponse<>(rows, null);
+        }
+
+        var content = List.copyOf(rows.subList(0, size));
+        return new PageResponse<>(content, cursor.apply(content.get(size - 1)));
+    }
+}
@@ -0,0 +1,7 @@
+package com.onlineshop.test.dto.response;
+
+public record PayrollResponse(
+        Long employeeId,
+        Long employees,
+        Long payroll
+) {}
@@ -3,5 +3,6 @@ package com.onlineshop.test.dto.response;
 public record ProductResponse(
         Long id,
         String name,
-        Long price
+        Long price,
+        Long version
 ) {}
\ No newline at end of file
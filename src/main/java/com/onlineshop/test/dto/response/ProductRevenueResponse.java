@@ -0,0 +1,8 @@
+package com.onlineshop.test.dto.response;
+
+public record ProductRevenueResponse(
+        Long productId,
+        String productName,
+        Long quantity,
+        Long revenue
+) {}
@@ -0,0 +1,7 @@
+package com.onlineshop.test.dto.response;
+
+public record ProductSalesResponse(
+        Long productId,
+        Long quantity,
+        Long revenue
+) {}
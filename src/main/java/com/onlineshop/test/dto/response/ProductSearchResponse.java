@@ -0,0 +1,8 @@
+package com.onlineshop.test.dto.response;
+
+public record ProductSearchResponse(
+        Long id,
+        String name,
+        Long price,
+        Float rank
+) {}
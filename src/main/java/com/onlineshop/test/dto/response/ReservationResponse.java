@@ -0,0 +1,9 @@
+package com.onlineshop.test.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ReservationResponse(
+        UUID id,
+        LocalDateTime expiresAt
+) {}
@@ -0,0 +1,9 @@
+package com.onlineshop.test.dto.response;
+
+import java.time.LocalDateTime;
+
+// Версия и время изменения записи для условных GET без чтения самой записи
+public record ResourceVersion(
+        Long version,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,8 @@
+package com.onlineshop.test.dto.response;
+
+// available - можно заказать сейчас, reserved - удерживается действующими резервированиями
+public record StockResponse(
+        Long productId,
+        Long available,
+        Long reserved
+) {}
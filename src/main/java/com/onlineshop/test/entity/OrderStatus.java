@@ -0,0 +1,9 @@
+package com.onlineshop.test.entity;
+
+// Статус оплаты заказа: заказ создаётся в PENDING_PAYMENT, результат авторизации записывается в фоне
+public enum OrderStatus {
+    PENDING_PAYMENT,
+    PAID,
+    PAYMENT_DECLINED,
+    PAYMENT_FAILED
+}
@@ -0,0 +1,8 @@
+package com.onlineshop.test.exception;
+
+public class OrderAmountOverflowException extends RuntimeException {
+
+    public OrderAmountOverflowException() {
+        super("Сумма заказа превышает допустимое значение");
+    }
+}
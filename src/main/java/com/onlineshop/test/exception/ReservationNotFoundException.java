@@ -0,0 +1,10 @@
+package com.onlineshop.test.exception;
+
+import java.util.UUID;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(UUID id) {
+        super("Резервирование с ID " + id + " не найдено или истекло");
+    }
+}
@@ -0,0 +1,8 @@
+package com.onlineshop.test.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+
+    public UnsupportedExportFormatException(String format) {
+        super("Формат выгрузки " + format + " не поддерживается");
+    }
+}
@@ -0,0 +1,8 @@
+package com.onlineshop.test.exception;
+
+public class UnsupportedSortException extends RuntimeException {
+
+    public UnsupportedSortException(String sort) {
+        super("Сортировка " + sort + " не поддерживается");
+    }
+}
@@ -0,0 +1,8 @@
+package com.onlineshop.test.exception;
+
+public class VersionMismatchException extends RuntimeException {
+
+    public VersionMismatchException(Long id, Long expectedVersion, Long actualVersion) {
+        super("Запись с id " + id + " изменена: ожидалась версия " + expectedVersion + ", текущая " + actualVersion);
+    }
+}
@@ -1,5 +1,6 @@
 package com.onlineshop.test.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -38,6 +39,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    // Обработка исключения InvalidCursorException
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    // Обработка исключения UnsupportedExportFormatException
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<String> handleUnsupportedExportFormatException(UnsupportedExportFormatException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    // Обработка исключения UnsupportedSortException
+    @ExceptionHandler(UnsupportedSortException.class)
+    public ResponseEntity<String> handleUnsupportedSortException(UnsupportedSortException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    // Обработка исключения ReservationNotFoundException
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<String> handleReservationNotFoundException(ReservationNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    // Обработка исключения InsufficientStockException
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<String> handleInsufficientStockException(InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    // Обработка исключения VersionMismatchException: версия из If-Match устарела
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<String> handleVersionMismatchException(VersionMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    // Обработка исключения OptimisticLockingFailureException: запись изменили параллельно
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Запись изменена другим запросом, повторите с актуальной версией");
+    }
+
+    // Обработка исключения OrderAmountOverflowException: сумма заказа вышла за пределы long
+    @ExceptionHandler(OrderAmountOverflowException.class)
+    public ResponseEntity<String> handleOrderAmountOverflowException(OrderAmountOverflowException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     // Общая обработка всех RuntimeException
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
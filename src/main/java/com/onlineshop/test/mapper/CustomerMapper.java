@@ -12,5 +12,6 @@ public interface CustomerMapper {
     CustomerResponse toResponse(Customer customer);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Customer toEntity(CustomerRequest request);
 }
\ No newline at end of file
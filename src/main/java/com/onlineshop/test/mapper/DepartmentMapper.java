@@ -12,5 +12,6 @@ public interface DepartmentMapper {
     DepartmentResponse toResponse(Department department);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Department toEntity(DepartmentRequest request);
 }
\ No newline at end of file
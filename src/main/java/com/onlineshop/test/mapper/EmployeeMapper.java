@@ -13,6 +13,7 @@ public interface EmployeeMapper {
     EmployeeResponse toResponse(Employee employee);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(source = "departmentId", target = "department.id")
     @Mapping(source = "managerId", target = "manager.id")
     Employee toEntity(EmployeeRequest request);
@@ -14,9 +14,13 @@ public interface OrderMapper {
     OrderResponse toResponse(Order order);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "amount", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "status", ignore = true)
     @Mapping(target = "items", ignore = true)
-    @Mapping(source = "employeeId", target = "employee.id")
-    @Mapping(source = "customerId", target = "customer.id")
+    @Mapping(target = "employee", ignore = true)
+    @Mapping(target = "customer", ignore = true)
     Order toEntity(OrderRequest request);
-}
\ No newline at end of file
+}
@@ -1,6 +1,14 @@
 package com.onlineshop.test.repository;
 
 import com.onlineshop.test.entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+import java.util.List;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // Keyset-пагинация по первичному ключу
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
+
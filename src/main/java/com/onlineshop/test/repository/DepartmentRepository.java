@@ -1,7 +1,17 @@
 package com.onlineshop.test.repository;
 
 import com.onlineshop.test.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
-}
\ No newline at end of file
+
+    // Keyset-пагинация по первичному ключу, страницы справочника кэшируются в query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Department> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -1,6 +1,109 @@
 package com.onlineshop.test.repository;
 
 import com.onlineshop.test.entity.Employee;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {}
+import java.util.List;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+
+    // Keyset-пагинация по первичному ключу
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Прямые подчинённые
+    @Query(value = """
+            SELECT e.id, e.name, e.position, e.salary, e.manager_id AS "managerId", 1 AS depth
+            FROM employees e
+            WHERE e.manager_id = :id
+            ORDER BY e.id
+            """, nativeQuery = true)
+    List<HierarchyNode> findDirectReports(@Param("id") Long id);
+
+    // Всё поддерево менеджера одним рекурсивным запросом, в порядке обхода в глубину.
+    // Путь от корня защищает от зацикливания, если в данных окажется цикл подчинения
+    @Query(value = """
+            WITH RECURSIVE subtree AS (
+                SELECT e.id, e.name, e.position, e.salary, e.manager_id, 0 AS depth, ARRAY[e.id] AS path
+                FROM employees e
+                WHERE e.id = :id
+                UNION ALL
+                SELECT e.id, e.name, e.position, e.salary, e.manager_id, s.depth + 1, s.path || e.id
+                FROM employees e
+                JOIN subtree s ON e.manager_id = s.id
+                WHERE e.id <> ALL (s.path)
+            )
+            SELECT id, name, position, salary, manager_id AS "managerId", depth
+            FROM subtree
+            WHERE depth > 0
+            ORDER BY path
+            """, nativeQuery = true)
+    List<HierarchyNode> findSubtree(@Param("id") Long id);
+
+    // Цепочка менеджеров от сотрудника до корня
+    @Query(value = """
+            WITH RECURSIVE chain AS (
+                SELECT e.id, e.name, e.position, e.salary, e.manager_id, 0 AS depth, ARRAY[e.id] AS path
+                FROM employees e
+                WHERE e.id = :id
+                UNION ALL
+                SELECT m.id, m.name, m.position, m.salary, m.manager_id, c.depth + 1, c.path || m.id
+                FROM employees m
+                JOIN chain c ON m.id = c.manager_id
+                WHERE m.id <> ALL (c.path)
+            )
+            SELECT id, name, position, salary, manager_id AS "managerId", depth
+            FROM chain
+            WHERE depth > 0
+            ORDER BY depth
+            """, nativeQuery = true)
+    List<HierarchyNode> findManagementChain(@Param("id") Long id);
+
+    // Численность и фонд оплаты поддерева вместе с самим менеджером
+    @Query(value = """
+            WITH RECURSIVE subtree AS (
+                SELECT e.id, e.salary, ARRAY[e.id] AS path
+                FROM employees e
+                WHERE e.id = :id
+                UNION ALL
+                SELECT e.id, e.salary, s.path || e.id
+                FROM employees e
+                JOIN subtree s ON e.manager_id = s.id
+                WHERE e.id <> ALL (s.path)
+            )
+            SELECT count(*) AS employees, coalesce(sum(salary), 0)::bigint AS payroll
+            FROM subtree
+            """, nativeQuery = true)
+    Payroll findSubtreePayroll(@Param("id") Long id);
+
+    // Все связи подчинения для индекса иерархии в памяти
+    @Query(value = """
+            SELECT e.id, e.name, e.position, e.salary, e.manager_id AS "managerId", 0 AS depth
+            FROM employees e
+            """, nativeQuery = true)
+    List<HierarchyNode> findAllNodes();
+
+    interface HierarchyNode {
+
+        Long getId();
+
+        String getName();
+
+        String getPosition();
+
+        Long getSalary();
+
+        Long getManagerId();
+
+        Integer getDepth();
+    }
+
+    interface Payroll {
+
+        Long getEmployees();
+
+        Long getPayroll();
+    }
+}
@@ -0,0 +1,205 @@
+package com.onlineshop.test.repository;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Остатки продуктов по шардам и резервирования (V8__product_inventory.sql).
+// Остаток меняется только условными UPDATE в базе: приложение не читает значение, чтобы потом записать новое
+@Repository
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class InventoryRepository {
+
+    private static final String AVAILABLE = """
+            SELECT sum(quantity) FROM product_stock WHERE product_id = ?
+            """;
+
+    private static final String RESERVED = """
+            SELECT coalesce(sum(quantity), 0) FROM stock_reservations WHERE product_id = ? AND expires_at > ?
+            """;
+
+    private static final String TRACKED = """
+            SELECT stock_tracked FROM products WHERE id = ?
+            """;
+
+    // Остаток проверяется при списании только после первой установки
+    private static final String TRACK_STOCK = """
+            UPDATE products SET stock_tracked = true WHERE id = ? AND NOT stock_tracked
+            """;
+
+    // Остаток распределяется по шардам поровну, остаток от деления - по одной единице в первые шарды
+    private static final String SET_STOCK = """
+            UPDATE product_stock s
+            SET quantity = ? / n.shards + CASE WHEN s.shard < ? % n.shards THEN 1 ELSE 0 END
+            FROM (SELECT count(*) AS shards FROM product_stock WHERE product_id = ?) n
+            WHERE s.product_id = ?
+            """;
+
+    // Быстрый путь: случайный шард с достаточным остатком, занятые другими транзакциями шарды пропускаются
+    private static final String TAKE_FROM_ONE_SHARD = """
+            UPDATE product_stock s
+            SET quantity = s.quantity - ?
+            FROM (SELECT shard FROM product_stock
+                  WHERE product_id = ? AND quantity >= ?
+                  ORDER BY random()
+                  LIMIT 1
+                  FOR UPDATE SKIP LOCKED) t
+            WHERE s.product_id = ? AND s.shard = t.shard AND s.quantity >= ?
+            RETURNING s.shard
+            """;
+
+    // Медленный путь: забирает сколько есть из первого непустого шарда, шарды блокируются по возрастанию номера
+    private static final String TAKE_FROM_ANY_SHARD = """
+            UPDATE product_stock s
+            SET quantity = s.quantity - t.taken
+            FROM (SELECT shard, least(quantity, ?) AS taken FROM product_stock
+                  WHERE product_id = ? AND quantity > 0
+                  ORDER BY shard
+                  LIMIT 1
+                  FOR UPDATE) t
+            WHERE s.product_id = ? AND s.shard = t.shard AND s.quantity >= t.taken
+            RETURNING s.shard, t.taken
+            """;
+
+    // Возврат раскладывается по всем шардам, как в SET_STOCK; шарды блокируются в том же порядке, что и при списании
+    private static final String RESTOCK = """
+            UPDATE product_stock s
+            SET quantity = s.quantity + ? / n.shards + CASE WHEN s.shard < ? % n.shards THEN 1 ELSE 0 END
+            FROM (SELECT count(*) AS shards FROM product_stock WHERE product_id = ?) n,
+                 (SELECT shard FROM product_stock
+                  WHERE product_id = ?
+                  ORDER BY product_id, shard
+                  FOR UPDATE) l
+            WHERE s.product_id = ? AND s.shard = l.shard
+            """;
+
+    private static final String INSERT_RESERVATION = """
+            INSERT INTO stock_reservations (reservation_id, product_id, shard, quantity, expires_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String CONFIRM_RESERVATION = """
+            DELETE FROM stock_reservations
+            WHERE reservation_id = ? AND expires_at > ?
+            RETURNING product_id, shard, quantity
+            """;
+
+    // Строки резервирования удаляются и возвращаются в свои шарды одним оператором.
+    // Шарды блокируются заранее по (product_id, shard), а не в порядке соединения: иначе два освобождения
+    // с общими продуктами или освобождение и списание могут взаимно заблокироваться
+    private static final String RETURN_RESERVED = """
+            , locked AS (
+                SELECT product_id, shard FROM product_stock
+                WHERE (product_id, shard) IN (SELECT product_id, shard FROM released)
+                ORDER BY product_id, shard
+                FOR UPDATE
+            ), returned AS (
+                UPDATE product_stock s
+                SET quantity = s.quantity + r.quantity
+                FROM (SELECT product_id, shard, sum(quantity) AS quantity FROM released GROUP BY product_id, shard) r
+                JOIN locked l ON l.product_id = r.product_id AND l.shard = r.shard
+                WHERE s.product_id = r.product_id AND s.shard = r.shard
+            )
+            SELECT count(*) FROM released
+            """;
+
+    private static final String RELEASE_RESERVATION = """
+            WITH released AS (
+                DELETE FROM stock_reservations
+                WHERE reservation_id = ?
+                RETURNING product_id, shard, quantity
+            )
+            """ + RETURN_RESERVED;
+
+    private static final String RELEASE_EXPIRED = """
+            WITH released AS (
+                DELETE FROM stock_reservations
+                WHERE id IN (SELECT id FROM stock_reservations
+                             WHERE expires_at <= ?
+                             ORDER BY expires_at
+                             LIMIT ?
+                             FOR UPDATE SKIP LOCKED)
+                RETURNING product_id, shard, quantity
+            )
+            """ + RETURN_RESERVED;
+
+    JdbcTemplate jdbcTemplate;
+
+    // Сумма по шардам; пусто, если у продукта нет строк остатка
+    public Optional<Long> findAvailable(long productId) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(AVAILABLE, Long.class, productId));
+    }
+
+    public long findReserved(long productId, LocalDateTime now) {
+        return jdbcTemplate.queryForObject(RESERVED, Long.class, productId, Timestamp.valueOf(now));
+    }
+
+    public boolean isTracked(long productId) {
+        return jdbcTemplate.queryForList(TRACKED, Boolean.class, productId)
+                .stream()
+                .findFirst()
+                .orElse(false);
+    }
+
+    public boolean setStock(long productId, long quantity) {
+        jdbcTemplate.update(TRACK_STOCK, productId);
+        return jdbcTemplate.update(SET_STOCK, quantity, quantity, productId, productId) > 0;
+    }
+
+    public Optional<Allocation> takeFromOneShard(long productId, long quantity) {
+        return jdbcTemplate.query(TAKE_FROM_ONE_SHARD,
+                        (rs, rowNum) -> new Allocation(productId, rs.getInt("shard"), quantity),
+                        quantity, productId, quantity, productId, quantity)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<Allocation> takeFromAnyShard(long productId, long quantity) {
+        return jdbcTemplate.query(TAKE_FROM_ANY_SHARD,
+                        (rs, rowNum) -> new Allocation(productId, rs.getInt("shard"), rs.getLong("taken")),
+                        quantity, productId, productId)
+                .stream()
+                .findFirst();
+    }
+
+    public void restock(long productId, long quantity) {
+        jdbcTemplate.update(RESTOCK, quantity, quantity, productId, productId, productId);
+    }
+
+    public void insertReservation(UUID reservationId, List<Allocation> allocations, LocalDateTime expiresAt) {
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION, allocations, allocations.size(), (statement, allocation) -> {
+            statement.setObject(1, reservationId);
+            statement.setLong(2, allocation.productId());
+            statement.setInt(3, allocation.shard());
+            statement.setLong(4, allocation.quantity());
+            statement.setTimestamp(5, Timestamp.valueOf(expiresAt));
+        });
+    }
+
+    // Подтверждение удаляет строки резервирования: товар остаётся списанным
+    public List<Allocation> confirmReservation(UUID reservationId, LocalDateTime now) {
+        return jdbcTemplate.query(CONFIRM_RESERVATION,
+                (rs, rowNum) -> new Allocation(rs.getLong("product_id"), rs.getInt("shard"), rs.getLong("quantity")),
+                reservationId, Timestamp.valueOf(now));
+    }
+
+    public long releaseReservation(UUID reservationId) {
+        return jdbcTemplate.queryForObject(RELEASE_RESERVATION, Long.class, reservationId);
+    }
+
+    public long releaseExpired(LocalDateTime now, int batchSize) {
+        return jdbcTemplate.queryForObject(RELEASE_EXPIRED, Long.class, Timestamp.valueOf(now), batchSize);
+    }
+
+    public record Allocation(long productId, int shard, long quantity) {
+    }
+}
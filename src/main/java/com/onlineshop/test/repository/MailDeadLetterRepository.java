@@ -0,0 +1,28 @@
+package com.onlineshop.test.repository;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Недоставленные письма (V12__order_mail.sql)
+@Repository
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class MailDeadLetterRepository {
+
+    private static final String INSERT = """
+            INSERT INTO mail_dead_letters (order_id, recipient, subject, body, error, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    JdbcTemplate jdbcTemplate;
+
+    public void insert(Long orderId, String recipient, String subject, String body, String error, LocalDateTime createdAt) {
+        jdbcTemplate.update(INSERT, orderId, recipient, subject, body, error, Timestamp.valueOf(createdAt));
+    }
+}
@@ -1,6 +1,86 @@
 package com.onlineshop.test.repository;
 
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.ResourceVersion;
 import com.onlineshop.test.entity.Order;
+import com.onlineshop.test.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // Страница заказов вместе с именами клиента и сотрудника одним запросом.
+    // Сравнение кортежей PostgreSQL для отсечения секций не использует, поэтому рядом стоит простое условие
+    // на created_at (ключ секционирования): по нему пропускаются секции до курсора
+    @Query("""
+            select new com.onlineshop.test.dto.response.OrderResponse(o.id, o.amount, c.name, e.name, o.createdAt, o.status, o.version)
+            from Order o
+            left join o.customer c
+            left join o.employee e
+            where o.createdAt >= :createdAt
+              and (o.createdAt, o.id) > (:createdAt, :id)
+            order by o.createdAt, o.id
+            """)
+    List<OrderResponse> findResponsesAfter(@Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    // Заказ по ID без подгрузки связанных сущностей
+    @Query("""
+            select new com.onlineshop.test.dto.response.OrderResponse(o.id, o.amount, c.name, e.name, o.createdAt, o.status, o.version)
+            from Order o
+            left join o.customer c
+            left join o.employee e
+            where o.id = :id
+            """)
+    Optional<OrderResponse> findResponseById(@Param("id") Long id);
+
+    // Только версия и время изменения: проверка условного GET без соединений с клиентом и сотрудником
+    @Query("""
+            select new com.onlineshop.test.dto.response.ResourceVersion(o.version, o.updatedAt)
+            from Order o
+            where o.id = :id
+            """)
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    // История заказов клиента: seek по (created_at, id) в порядке индекса idx_orders_customer_created_at_id,
+    // условие created_at <= курсора отсекает секции после него
+    @Query("""
+            select new com.onlineshop.test.dto.response.OrderResponse(o.id, o.amount, c.name, e.name, o.createdAt, o.status, o.version)
+            from Order o
+            left join o.customer c
+            left join o.employee e
+            where o.customer.id = :customerId
+              and o.createdAt <= :createdAt
+              and (o.createdAt, o.id) < (:createdAt, :id)
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponse> findCustomerHistory(@Param("customerId") Long customerId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    // Результат оплаты записывается, только если заказ ещё в ожидаемом статусе: повторная доставка события
+    // ничего не меняет. Версия увеличивается, чтобы ETag заказа сменился.
+    // createdAt (ключ секционирования) оставляет UPDATE в одной месячной секции вместо обхода всех
+    @Transactional
+    @Modifying
+    @Query("""
+            update Order o
+            set o.status = :status, o.updatedAt = :updatedAt, o.version = o.version + 1
+            where o.id = :id and o.createdAt = :createdAt and o.status = :expected
+            """)
+    int updateStatus(@Param("id") Long id,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("expected") OrderStatus expected,
+                     @Param("status") OrderStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,11 @@
+package com.onlineshop.test.repository;
+
+// Строка outbox, выданная обработчику: payload - JSON события, attempt - номер текущей попытки начиная с 1
+public record OutboxEvent(
+        Long id,
+        String eventType,
+        Long aggregateId,
+        String handler,
+        String payload,
+        int attempt
+) {}
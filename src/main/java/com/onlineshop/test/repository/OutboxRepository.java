@@ -0,0 +1,117 @@
+package com.onlineshop.test.repository;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Таблица outbox_events (V10__outbox.sql)
+@Repository
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class OutboxRepository {
+
+    private static final String INSERT = """
+            INSERT INTO outbox_events (event_type, aggregate_id, handler, payload, created_at, available_at)
+            VALUES (?, ?, ?, ?::jsonb, ?, ?)
+            """;
+
+    // Захват пачки под аренду: строки, занятые другим диспетчером, пропускаются
+    private static final String CLAIM = """
+            UPDATE outbox_events e
+            SET locked_until = ?, attempts = e.attempts + 1
+            WHERE e.id IN (SELECT id FROM outbox_events
+                           WHERE failed_at IS NULL
+                             AND available_at <= ?
+                             AND (locked_until IS NULL OR locked_until <= ?)
+                           ORDER BY available_at, id
+                           LIMIT ?
+                           FOR UPDATE SKIP LOCKED)
+            RETURNING e.id, e.event_type, e.aggregate_id, e.handler, e.payload::text AS payload, e.attempts
+            """;
+
+    // Продление аренды только для строк этого захвата: номер попытки меняется при каждом новом захвате
+    private static final String RENEW = """
+            UPDATE outbox_events SET locked_until = ? WHERE id = ? AND attempts = ? AND failed_at IS NULL
+            """;
+
+    // Итог доставки записывается с той же проверкой владения, что и продление: диспетчер с истёкшей арендой
+    // не трогает строку, которую уже забрал другой
+    private static final String DELETE = """
+            DELETE FROM outbox_events WHERE id = ? AND attempts = ?
+            """;
+
+    private static final String RESCHEDULE = """
+            UPDATE outbox_events SET available_at = ?, locked_until = NULL, last_error = ?
+            WHERE id = ? AND attempts = ? AND failed_at IS NULL
+            """;
+
+    private static final String FAIL = """
+            UPDATE outbox_events SET failed_at = ?, locked_until = NULL, last_error = ?
+            WHERE id = ? AND attempts = ? AND failed_at IS NULL
+            """;
+
+    JdbcTemplate jdbcTemplate;
+
+    public void insert(String eventType, Long aggregateId, List<String> handlers, String payload, LocalDateTime now) {
+        jdbcTemplate.batchUpdate(INSERT, handlers, handlers.size(), (statement, handler) -> {
+            statement.setString(1, eventType);
+            statement.setObject(2, aggregateId);
+            statement.setString(3, handler);
+            statement.setString(4, payload);
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+        });
+    }
+
+    public List<OutboxEvent> claim(LocalDateTime now, LocalDateTime lockedUntil, int batchSize) {
+        return jdbcTemplate.query(CLAIM,
+                (rs, rowNum) -> new OutboxEvent(
+                        rs.getLong("id"),
+                        rs.getString("event_type"),
+                        rs.getObject("aggregate_id", Long.class),
+                        rs.getString("handler"),
+                        rs.getString("payload"),
+                        rs.getInt("attempts")),
+                Timestamp.valueOf(lockedUntil), Timestamp.valueOf(now), Timestamp.valueOf(now), batchSize);
+    }
+
+    // Возвращает события, аренда которых продлена; остальные уже забрал другой диспетчер
+    public List<OutboxEvent> renew(List<OutboxEvent> events, LocalDateTime lockedUntil) {
+        var counts = jdbcTemplate.batchUpdate(RENEW, events, events.size(), (statement, event) -> {
+            statement.setTimestamp(1, Timestamp.valueOf(lockedUntil));
+            statement.setLong(2, event.id());
+            statement.setInt(3, event.attempt());
+        });
+
+        var renewed = new ArrayList<OutboxEvent>();
+        var index = 0;
+        for (var batch : counts) {
+            for (var count : batch) {
+                if (count > 0) {
+                    renewed.add(events.get(index));
+                }
+                index++;
+            }
+        }
+        return renewed;
+    }
+
+    public boolean delete(OutboxEvent event) {
+        return jdbcTemplate.update(DELETE, event.id(), event.attempt()) > 0;
+    }
+
+    public boolean reschedule(OutboxEvent event, LocalDateTime availableAt, String error) {
+        return jdbcTemplate.update(RESCHEDULE, Timestamp.valueOf(availableAt), error, event.id(), event.attempt()) > 0;
+    }
+
+    public boolean fail(OutboxEvent event, LocalDateTime failedAt, String error) {
+        return jdbcTemplate.update(FAIL, Timestamp.valueOf(failedAt), error, event.id(), event.attempt()) > 0;
+    }
+}
@@ -1,6 +1,70 @@
 package com.onlineshop.test.repository;
 
 import com.onlineshop.test.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    // Keyset-пагинация по первичному ключу, страницы справочника кэшируются в query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Полнотекстовый поиск: совпадения берутся из GIN-индекса, ранжируются и режутся на страницы по ключу
+    // (rank DESC, id). Ранжируются только candidates первых совпадений по id: отсечка не требует ts_rank
+    // и сортировки всех совпадений, поэтому частое слово стоит не дороже редкого. Порядок по id делает набор
+    // кандидатов одинаковым для всех страниц, но лучшие по рангу совпадения за пределами отсечки не попадут в выдачу
+    @Query(value = """
+            WITH candidates AS (
+                SELECT p.id, p.name, p.price, p.search_vector, q.ts
+                FROM products p, websearch_to_tsquery('simple', :query) AS q(ts)
+                WHERE p.search_vector @@ q.ts
+                ORDER BY p.id
+                LIMIT :candidates
+            ), matches AS (
+                SELECT id, name, price, ts_rank(search_vector, ts) AS rank
+                FROM candidates
+            )
+            SELECT id, name, price, rank
+            FROM matches
+            WHERE rank < :rank OR (rank = :rank AND id > :id)
+            ORDER BY rank DESC, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query,
+                           @Param("rank") float rank,
+                           @Param("id") long id,
+                           @Param("candidates") int candidates,
+                           @Param("limit") int limit);
+
+    // Автодополнение: префикс или похожее слово в названии, ближайшие по триграммам первыми
+    @Query(value = """
+            SELECT p.id, p.name, p.price, p.version
+            FROM products p
+            WHERE lower(p.name) LIKE :prefix OR :term <% lower(p.name)
+            ORDER BY :term <<-> lower(p.name)
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> autocomplete(@Param("term") String term,
+                               @Param("prefix") String prefix,
+                               @Param("limit") int limit);
+
+    interface SearchHit {
+
+        Long getId();
+
+        String getName();
+
+        Long getPrice();
+
+        Float getRank();
+    }
+}
@@ -0,0 +1,49 @@
+package com.onlineshop.test.repository;
+
+import com.onlineshop.test.dto.request.ProductFilter;
+import com.onlineshop.test.entity.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+
+// Условия выборки каталога продуктов для JpaSpecificationExecutor
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matches(ProductFilter filter) {
+        return (root, query, builder) -> {
+            var predicates = new ArrayList<Predicate>();
+            if (filter.minPrice() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+            }
+            if (filter.maxPrice() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Строки после курсора в порядке (attribute, id). Нестрогое условие на attribute задаёт границу
+    // диапазона индекса (attribute, id), поэтому глубокая страница стоит столько же, сколько первая
+    public static <T extends Comparable<? super T>> Specification<Product> after(String attribute,
+                                                                                 T value,
+                                                                                 long id,
+                                                                                 boolean descending) {
+        return (root, query, builder) -> {
+            var path = root.<T>get(attribute);
+            var idPath = root.<Long>get("id");
+            if (descending) {
+                return builder.and(
+                        builder.lessThanOrEqualTo(path, value),
+                        builder.or(builder.lessThan(path, value), builder.lessThan(idPath, id)));
+            }
+
+            return builder.and(
+                    builder.greaterThanOrEqualTo(path, value),
+                    builder.or(builder.greaterThan(path, value), builder.greaterThan(idPath, id)));
+        };
+    }
+}
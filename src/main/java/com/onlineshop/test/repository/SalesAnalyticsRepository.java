@@ -0,0 +1,138 @@
+package com.onlineshop.test.repository;
+
+import com.onlineshop.test.dto.response.DailyRevenueResponse;
+import com.onlineshop.test.dto.response.DepartmentRevenueResponse;
+import com.onlineshop.test.dto.response.EmployeeRevenueResponse;
+import com.onlineshop.test.dto.response.ProductRevenueResponse;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+// Чтение и свёртка таблиц агрегатов продаж (V5__sales_rollups.sql).
+// Каждый запрос складывает агрегат и ещё не свёрнутые дельты, поэтому итоги точные и без полного сканирования заказов
+@Repository
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class SalesAnalyticsRepository {
+
+    private static final String DAILY_REVENUE = """
+            SELECT day, sum(orders) AS orders, sum(revenue) AS revenue
+            FROM (SELECT day, orders, revenue FROM sales_daily WHERE day BETWEEN ? AND ?
+                  UNION ALL
+                  SELECT day, orders, revenue FROM order_sales_deltas WHERE day BETWEEN ? AND ?) s
+            GROUP BY day
+            HAVING sum(orders) <> 0
+            ORDER BY day
+            """;
+
+    private static final String PRODUCT_REVENUE = """
+            WITH sold AS (
+                SELECT product_id, sum(quantity) AS quantity
+                FROM (SELECT product_id, quantity FROM sales_by_product
+                      UNION ALL
+                      SELECT product_id, quantity FROM product_sales_deltas) s
+                GROUP BY product_id
+            )
+            SELECT p.id, p.name, sold.quantity, sold.quantity * p.price AS revenue
+            FROM sold
+            JOIN products p ON p.id = sold.product_id
+            WHERE sold.quantity > 0
+            ORDER BY revenue DESC, p.id
+            LIMIT ?
+            """;
+
+    private static final String EMPLOYEE_SALES = """
+            WITH sold AS (
+                SELECT employee_id, sum(orders) AS orders, sum(revenue) AS revenue
+                FROM (SELECT employee_id, orders, revenue FROM sales_by_employee
+                      UNION ALL
+                      SELECT employee_id, orders, revenue FROM order_sales_deltas WHERE employee_id IS NOT NULL) s
+                GROUP BY employee_id
+            )
+            """;
+
+    private static final String EMPLOYEE_REVENUE = EMPLOYEE_SALES + """
+            SELECT e.id, e.name, sold.orders, sold.revenue
+            FROM sold
+            JOIN employees e ON e.id = sold.employee_id
+            WHERE sold.orders > 0
+            ORDER BY sold.revenue DESC, e.id
+            """;
+
+    private static final String DEPARTMENT_REVENUE = EMPLOYEE_SALES + """
+            SELECT d.id, d.name, sum(sold.orders) AS orders, sum(sold.revenue) AS revenue
+            FROM sold
+            JOIN employees e ON e.id = sold.employee_id
+            JOIN departments d ON d.id = e.department_id
+            GROUP BY d.id, d.name
+            HAVING sum(sold.orders) > 0
+            ORDER BY revenue DESC, d.id
+            """;
+
+    // Дельты удаляются и прибавляются к агрегатам одним оператором: строка либо свёрнута, либо осталась в дельтах
+    private static final String FOLD_ORDER_DELTAS = """
+            WITH moved AS (
+                DELETE FROM order_sales_deltas
+                RETURNING day, employee_id, orders, revenue
+            ), daily AS (
+                INSERT INTO sales_daily AS s (day, orders, revenue)
+                SELECT day, sum(orders), sum(revenue) FROM moved GROUP BY day
+                ON CONFLICT (day) DO UPDATE
+                    SET orders = s.orders + excluded.orders, revenue = s.revenue + excluded.revenue
+            )
+            INSERT INTO sales_by_employee AS s (employee_id, orders, revenue)
+            SELECT employee_id, sum(orders), sum(revenue) FROM moved WHERE employee_id IS NOT NULL GROUP BY employee_id
+            ON CONFLICT (employee_id) DO UPDATE
+                SET orders = s.orders + excluded.orders, revenue = s.revenue + excluded.revenue
+            """;
+
+    private static final String FOLD_PRODUCT_DELTAS = """
+            WITH moved AS (
+                DELETE FROM product_sales_deltas
+                RETURNING product_id, quantity
+            )
+            INSERT INTO sales_by_product AS s (product_id, quantity)
+            SELECT product_id, sum(quantity) FROM moved GROUP BY product_id
+            ON CONFLICT (product_id) DO UPDATE
+                SET quantity = s.quantity + excluded.quantity
+            """;
+
+    JdbcTemplate jdbcTemplate;
+
+    public List<DailyRevenueResponse> findDailyRevenue(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(DAILY_REVENUE,
+                (rs, rowNum) -> new DailyRevenueResponse(
+                        rs.getDate("day").toLocalDate(), rs.getLong("orders"), rs.getLong("revenue")),
+                Date.valueOf(from), Date.valueOf(to), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<ProductRevenueResponse> findTopProducts(int limit) {
+        return jdbcTemplate.query(PRODUCT_REVENUE,
+                (rs, rowNum) -> new ProductRevenueResponse(
+                        rs.getLong("id"), rs.getString("name"), rs.getLong("quantity"), rs.getLong("revenue")),
+                limit);
+    }
+
+    public List<EmployeeRevenueResponse> findEmployeeRevenue() {
+        return jdbcTemplate.query(EMPLOYEE_REVENUE,
+                (rs, rowNum) -> new EmployeeRevenueResponse(
+                        rs.getLong("id"), rs.getString("name"), rs.getLong("orders"), rs.getLong("revenue")));
+    }
+
+    public List<DepartmentRevenueResponse> findDepartmentRevenue() {
+        return jdbcTemplate.query(DEPARTMENT_REVENUE,
+                (rs, rowNum) -> new DepartmentRevenueResponse(
+                        rs.getLong("id"), rs.getString("name"), rs.getLong("orders"), rs.getLong("revenue")));
+    }
+
+    public void foldDeltas() {
+        jdbcTemplate.update(FOLD_ORDER_DELTAS);
+        jdbcTemplate.update(FOLD_PRODUCT_DELTAS);
+    }
+}
@@ -0,0 +1,208 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.ImportProperties;
+import com.onlineshop.test.dto.response.ImportError;
+import com.onlineshop.test.dto.response.ImportReport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Потоковый импорт: тело запроса читается построчно, строки пишутся пачками по import.chunk-size
+@Service
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class BulkImportService {
+
+    ObjectMapper objectMapper;
+    Validator validator;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+    ImportProperties importProperties;
+
+    // Импорт JSON-массива: элементы разбираются по одному, без буферизации всего тела
+    public <R, E> ImportReport importJson(InputStream body, Class<R> type, Function<R, E> toEntity) {
+        var batch = new Batch<R, E>(toEntity);
+
+        try (var rows = objectMapper.readerFor(type).<R>readValues(body)) {
+            long row = 0;
+            while (rows.hasNextValue()) {
+                row++;
+                try {
+                    batch.add(row, rows.nextValue());
+                } catch (JsonMappingException ex) {
+                    batch.reject(row, ex.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            batch.reject(batch.rows + 1, "Некорректный JSON: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return batch.finish();
+    }
+
+    // Импорт CSV с заголовком: первая строка пропускается
+    public <R, E> ImportReport importCsv(InputStream body, Function<List<String>, R> parser, Function<R, E> toEntity) {
+        var batch = new Batch<R, E>(toEntity);
+
+        try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            reader.readLine();
+
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    batch.add(row, parser.apply(splitCsv(line)));
+                } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                    batch.reject(row, "Некорректная строка CSV: " + ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return batch.finish();
+    }
+
+    // Разбор строки CSV с поддержкой значений в кавычках
+    static List<String> splitCsv(String line) {
+        var values = new ArrayList<String>();
+        var value = new StringBuilder();
+        var quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    // Накопитель строк: валидация, запись пачками в отдельных транзакциях и отчёт об ошибках.
+    // Пачка хранит запросы, а не сущности: после отката пачки строки пересоздаются и сохраняются по одной
+    private final class Batch<R, E> {
+
+        final Function<R, E> toEntity;
+        final List<Row<R>> chunk = new ArrayList<>();
+        final List<ImportError> errors = new ArrayList<>();
+        long rows;
+        long imported;
+        long failed;
+
+        Batch(Function<R, E> toEntity) {
+            this.toEntity = toEntity;
+        }
+
+        void add(long row, R request) {
+            rows = row;
+            var violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            chunk.add(new Row<>(row, request));
+            if (chunk.size() >= importProperties.chunkSize()) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            rows = Math.max(rows, row);
+            failed++;
+            if (errors.size() < importProperties.maxErrors()) {
+                errors.add(new ImportError(row, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            try {
+                persist(chunk);
+                imported += chunk.size();
+            } catch (DataAccessException | PersistenceException ex) {
+                // Ограничение базы нарушила одна из строк, а откатилась вся пачка: строки повторяются по одной,
+                // чтобы отклонить только нарушившие его
+                for (var row : chunk) {
+                    try {
+                        persist(List.of(row));
+                        imported++;
+                    } catch (DataAccessException | PersistenceException rowEx) {
+                        reject(row.row(), "Строка не сохранена: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowEx).getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        void persist(List<Row<R>> requests) {
+            transactionTemplate.executeWithoutResult(status -> {
+                requests.forEach(row -> entityManager.persist(toEntity.apply(row.request())));
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        ImportReport finish() {
+            flush();
+            return new ImportReport(imported, failed, errors.stream()
+                    .sorted(Comparator.comparingLong(ImportError::row))
+                    .toList());
+        }
+    }
+
+    private record Row<R>(long row, R request) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.dto.response.CustomerResponse;
+import com.onlineshop.test.dto.response.ProductResponse;
+import io.r2dbc.spi.Readable;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+// Неблокирующее чтение каталога через R2DBC: запись по-прежнему идёт через JPA-сервисы
+@Service
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class CatalogStreamService {
+
+    private static final int FETCH_SIZE = 256;
+
+    DatabaseClient databaseClient;
+
+    // Поток продуктов после курсора: строки читаются из базы порциями по мере спроса подписчика
+    public Flux<ProductResponse> streamProducts(String cursor, Integer limit) {
+        return stream("SELECT id, name, price, version FROM products WHERE id > :cursor ORDER BY id LIMIT :limit",
+                cursor, limit, CatalogStreamService::toProduct);
+    }
+
+    // Поток клиентов после курсора
+    public Flux<CustomerResponse> streamCustomers(String cursor, Integer limit) {
+        return stream("SELECT id, name, city, email, version FROM customers WHERE id > :cursor ORDER BY id LIMIT :limit",
+                cursor, limit, CatalogStreamService::toCustomer);
+    }
+
+    private <T> Flux<T> stream(String sql, String cursor, Integer limit, Function<Readable, T> mapper) {
+        var spec = databaseClient.sql(sql)
+                .bind("cursor", Cursors.decodeId(cursor));
+        spec = limit == null ? spec.bindNull("limit", Long.class) : spec.bind("limit", limit.longValue());
+
+        return spec.filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(mapper)
+                .all();
+    }
+
+    private static ProductResponse toProduct(Readable row) {
+        return new ProductResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("price", Long.class),
+                row.get("version", Long.class));
+    }
+
+    private static CustomerResponse toCustomer(Readable row) {
+        return new CustomerResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("city", String.class),
+                row.get("email", String.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Кодирование курсоров keyset-пагинации: по первичному ключу и по паре (значение сортировки, id)
+final class Cursors {
+
+    private Cursors() {
+    }
+
+    static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    static String encodeId(Long id) {
+        return String.valueOf(id);
+    }
+
+    // Курсор составного ключа непрозрачен для клиента: id и значение упакованы в base64url
+    static String encodeKeyset(String value, Long id) {
+        var raw = id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Keyset decodeKeyset(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(':');
+            return new Keyset(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    record Keyset(String value, long id) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.onlineshop.test.service;
 
+import com.onlineshop.test.configuration.PaginationProperties;
 import com.onlineshop.test.dto.request.CustomerRequest;
+import com.onlineshop.test.dto.response.ImportReport;
 import com.onlineshop.test.dto.response.CustomerResponse;
+import com.onlineshop.test.dto.response.PageResponse;
 import com.onlineshop.test.entity.Customer;
 import com.onlineshop.test.exception.CustomerNotFoundException;
 import com.onlineshop.test.mapper.CustomerMapper;
@@ -9,8 +12,10 @@ import com.onlineshop.test.repository.CustomerRepository;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
 import java.util.List;
 
 @Service
@@ -20,14 +25,20 @@ public class CustomerService {
 
     CustomerMapper customerMapper;
     CustomerRepository customerRepository;
+    PaginationProperties paginationProperties;
+    BulkImportService bulkImportService;
+    OptimisticRetry optimisticRetry;
 
     // Получение всех клиентов
-    public List<CustomerResponse> getAllCustomers() {
-        return customerRepository
-                .findAll()
+    public PageResponse<CustomerResponse> getAllCustomers(String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var rows = customerRepository
+                .findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor), Limit.of(limit + 1))
                 .stream()
                 .map(customerMapper::toResponse)
                 .toList();
+
+        return PageResponse.of(rows, limit, response -> Cursors.encodeId(response.id()));
     }
 
     // Получение клиента по ID
@@ -46,17 +57,20 @@ public class CustomerService {
         return customerMapper.toResponse(customer);
     }
 
-    // Обновление клиента
-    public CustomerResponse updateCustomer(Long id, CustomerRequest request) {
-        var existingCustomer = customerRepository
-                .findById(id)
-                .orElseThrow(() -> new CustomerNotFoundException(id));
+    // Обновление клиента; expectedVersion - версия из If-Match
+    public CustomerResponse updateCustomer(Long id, CustomerRequest request, Long expectedVersion) {
+        return optimisticRetry.execute(expectedVersion == null, () -> {
+            var existingCustomer = customerRepository
+                    .findById(id)
+                    .orElseThrow(() -> new CustomerNotFoundException(id));
+            Versions.check(id, expectedVersion, existingCustomer.getVersion());
 
-        existingCustomer.setName(request.getName());
-        existingCustomer.setCity(request.getCity());
-        customerRepository.save(existingCustomer);
+            existingCustomer.setName(request.getName());
+            existingCustomer.setCity(request.getCity());
+            existingCustomer.setEmail(request.getEmail());
 
-        return customerMapper.toResponse(existingCustomer);
+            return customerMapper.toResponse(customerRepository.saveAndFlush(existingCustomer));
+        });
     }
 
     // Удаление клиента
@@ -67,4 +81,22 @@ public class CustomerService {
 
         customerRepository.deleteById(id);
     }
+
+    // Массовый импорт клиентов из JSON-массива
+    public ImportReport importCustomersJson(InputStream body) {
+        return bulkImportService.importJson(body, CustomerRequest.class, customerMapper::toEntity);
+    }
+
+    // Массовый импорт клиентов из CSV с заголовком name,city и необязательной колонкой email
+    public ImportReport importCustomersCsv(InputStream body) {
+        return bulkImportService.importCsv(body, CustomerService::parseCsv, customerMapper::toEntity);
+    }
+
+    private static CustomerRequest parseCsv(List<String> values) {
+        var request = new CustomerRequest();
+        request.setName(values.get(0));
+        request.setCity(values.get(1));
+        request.setEmail(values.size() > 2 && !values.get(2).isEmpty() ? values.get(2) : null);
+        return request;
+    }
 }
\ No newline at end of file
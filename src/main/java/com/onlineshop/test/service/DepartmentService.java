@@ -1,7 +1,10 @@
 package com.onlineshop.test.service;
 
+import com.onlineshop.test.configuration.CacheConfiguration;
+import com.onlineshop.test.configuration.PaginationProperties;
 import com.onlineshop.test.dto.request.DepartmentRequest;
 import com.onlineshop.test.dto.response.DepartmentResponse;
+import com.onlineshop.test.dto.response.PageResponse;
 import com.onlineshop.test.entity.Department;
 import com.onlineshop.test.exception.DepartmentNotFoundException;
 import com.onlineshop.test.mapper.DepartmentMapper;
@@ -9,10 +12,11 @@ import com.onlineshop.test.repository.DepartmentRepository;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @AllArgsConstructor
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
@@ -20,17 +24,23 @@ public class DepartmentService {
 
     DepartmentMapper departmentMapper;
     DepartmentRepository departmentRepository;
+    PaginationProperties paginationProperties;
+    OptimisticRetry optimisticRetry;
 
     // Получение всех департаментов
-    public List<DepartmentResponse> getAllDepartments() {
-        return departmentRepository
-                .findAll()
+    public PageResponse<DepartmentResponse> getAllDepartments(String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var rows = departmentRepository
+                .findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor), Limit.of(limit + 1))
                 .stream()
                 .map(departmentMapper::toResponse)
                 .toList();
+
+        return PageResponse.of(rows, limit, response -> Cursors.encodeId(response.id()));
     }
 
     // Получение департамента по ID = 10001
+    @Cacheable(cacheNames = CacheConfiguration.DEPARTMENTS, key = "#id")
     public DepartmentResponse getDepartmentById(Long id) {
         return departmentRepository
                 .findById(id)
@@ -46,20 +56,24 @@ public class DepartmentService {
         return departmentMapper.toResponse(department);
     }
 
-    // Обновление департамента
-    public DepartmentResponse updateDepartment(Long id, DepartmentRequest request) {
-        var existingDepartment = departmentRepository
-                .findById(id)
-                .orElseThrow(() -> new DepartmentNotFoundException(id));
+    // Обновление департамента; expectedVersion - версия из If-Match
+    @CacheEvict(cacheNames = CacheConfiguration.DEPARTMENTS, key = "#id")
+    public DepartmentResponse updateDepartment(Long id, DepartmentRequest request, Long expectedVersion) {
+        return optimisticRetry.execute(expectedVersion == null, () -> {
+            var existingDepartment = departmentRepository
+                    .findById(id)
+                    .orElseThrow(() -> new DepartmentNotFoundException(id));
+            Versions.check(id, expectedVersion, existingDepartment.getVersion());
 
-        existingDepartment.setName(request.getName());
-        existingDepartment.setLocation(request.getLocation());
-        departmentRepository.save(existingDepartment);
+            existingDepartment.setName(request.getName());
+            existingDepartment.setLocation(request.getLocation());
 
-        return departmentMapper.toResponse(existingDepartment);
+            return departmentMapper.toResponse(departmentRepository.saveAndFlush(existingDepartment));
+        });
     }
 
     // Удаление департамента
+    @CacheEvict(cacheNames = CacheConfiguration.DEPARTMENTS, key = "#id")
     public void deleteDepartment(Long id) {
         departmentRepository
                 .findById(id)
@@ -0,0 +1,179 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.EmployeeHierarchyProperties;
+import com.onlineshop.test.dto.response.EmployeeNodeResponse;
+import com.onlineshop.test.dto.response.PayrollResponse;
+import com.onlineshop.test.repository.EmployeeRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Необязательный индекс иерархии сотрудников в памяти: список смежности строится одним запросом
+// и сбрасывается при изменении сотрудников или по истечении TTL (изменения с других экземпляров)
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EmployeeHierarchyIndex {
+
+    final EmployeeRepository employeeRepository;
+    final EmployeeHierarchyProperties employeeHierarchyProperties;
+
+    // Версия растёт при каждом сбросе: снимок, построенный до сброса, не устанавливается
+    final AtomicLong version = new AtomicLong();
+    // Снимок строит один поток: остальные после истечения TTL ждут его, а не читают всю таблицу сами
+    final ReentrantLock loading = new ReentrantLock();
+    volatile Snapshot snapshot;
+
+    public boolean isEnabled() {
+        return employeeHierarchyProperties.indexEnabled();
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    public Optional<List<EmployeeNodeResponse>> directReports(Long id) {
+        var current = current();
+        if (!current.nodes().containsKey(id)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(current.children(id).stream()
+                .map(child -> current.response(child, 1))
+                .toList());
+    }
+
+    // Обход в глубину в том же порядке, что и рекурсивный запрос
+    public Optional<List<EmployeeNodeResponse>> subtree(Long id) {
+        var current = current();
+        if (!current.nodes().containsKey(id)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(subtree(current, id));
+    }
+
+    public Optional<List<EmployeeNodeResponse>> managementChain(Long id) {
+        var current = current();
+        var node = current.nodes().get(id);
+        if (node == null) {
+            return Optional.empty();
+        }
+
+        var result = new ArrayList<EmployeeNodeResponse>();
+        var visited = new HashSet<Long>(List.of(id));
+        var managerId = node.getManagerId();
+        while (managerId != null && visited.add(managerId) && current.nodes().containsKey(managerId)) {
+            result.add(current.response(managerId, result.size() + 1));
+            managerId = current.nodes().get(managerId).getManagerId();
+        }
+        return Optional.of(result);
+    }
+
+    public Optional<PayrollResponse> payroll(Long id) {
+        var current = current();
+        var root = current.nodes().get(id);
+        if (root == null) {
+            return Optional.empty();
+        }
+
+        var nodes = subtree(current, id);
+        var payroll = nodes.stream()
+                .mapToLong(node -> salary(node.salary()))
+                .sum();
+        return Optional.of(new PayrollResponse(id, nodes.size() + 1L, payroll + salary(root.getSalary())));
+    }
+
+    private static List<EmployeeNodeResponse> subtree(Snapshot current, Long id) {
+        var result = new ArrayList<EmployeeNodeResponse>();
+        var visited = new HashSet<Long>(List.of(id));
+        var stack = new ArrayDeque<Map.Entry<Long, Integer>>();
+        current.children(id).reversed().forEach(child -> stack.push(Map.entry(child, 1)));
+        while (!stack.isEmpty()) {
+            var entry = stack.pop();
+            if (!visited.add(entry.getKey())) {
+                continue;
+            }
+
+            result.add(current.response(entry.getKey(), entry.getValue()));
+            current.children(entry.getKey()).reversed()
+                    .forEach(child -> stack.push(Map.entry(child, entry.getValue() + 1)));
+        }
+        return result;
+    }
+
+    private static long salary(Long salary) {
+        return salary != null ? salary : 0L;
+    }
+
+    private Snapshot current() {
+        var existing = snapshot;
+        if (isFresh(existing)) {
+            return existing;
+        }
+
+        loading.lock();
+        try {
+            existing = snapshot;
+            if (isFresh(existing)) {
+                return existing;
+            }
+
+            var expected = version.get();
+            var loaded = load();
+            if (version.get() == expected) {
+                snapshot = loaded;
+            }
+            return loaded;
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    private static boolean isFresh(Snapshot snapshot) {
+        return snapshot != null && snapshot.expiresAt() - System.nanoTime() > 0;
+    }
+
+    private Snapshot load() {
+        var nodes = new HashMap<Long, EmployeeRepository.HierarchyNode>();
+        var children = new HashMap<Long, List<Long>>();
+        for (var node : employeeRepository.findAllNodes()) {
+            nodes.put(node.getId(), node);
+            if (node.getManagerId() != null) {
+                children.computeIfAbsent(node.getManagerId(), key -> new ArrayList<>()).add(node.getId());
+            }
+        }
+        children.values().forEach(list -> list.sort(Comparator.naturalOrder()));
+
+        var expiresAt = System.nanoTime() + employeeHierarchyProperties.indexTtl().toNanos();
+        return new Snapshot(nodes, children, expiresAt);
+    }
+
+    private record Snapshot(Map<Long, EmployeeRepository.HierarchyNode> nodes,
+                            Map<Long, List<Long>> children,
+                            long expiresAt) {
+
+        List<Long> children(Long id) {
+            return children.getOrDefault(id, List.of());
+        }
+
+        EmployeeNodeResponse response(Long id, int depth) {
+            var node = nodes.get(id);
+            return new EmployeeNodeResponse(node.getId(), node.getName(), node.getPosition(), node.getSalary(),
+                    node.getManagerId(), depth);
+        }
+    }
+}
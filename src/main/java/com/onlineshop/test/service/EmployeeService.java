@@ -1,13 +1,18 @@
 package com.onlineshop.test.service;
 
+import com.onlineshop.test.configuration.PaginationProperties;
 import com.onlineshop.test.dto.request.EmployeeRequest;
+import com.onlineshop.test.dto.response.EmployeeNodeResponse;
 import com.onlineshop.test.dto.response.EmployeeResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.dto.response.PayrollResponse;
 import com.onlineshop.test.exception.EmployeeNotFoundException;
 import com.onlineshop.test.mapper.EmployeeMapper;
 import com.onlineshop.test.repository.EmployeeRepository;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,14 +24,20 @@ public class EmployeeService {
 
     EmployeeMapper employeeMapper;
     EmployeeRepository employeeRepository;
+    PaginationProperties paginationProperties;
+    EmployeeHierarchyIndex employeeHierarchyIndex;
+    OptimisticRetry optimisticRetry;
 
     // Получение всех сотрудников
-    public List<EmployeeResponse> getAllEmployees() {
-        return employeeRepository
-                .findAll()
+    public PageResponse<EmployeeResponse> getAllEmployees(String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var rows = employeeRepository
+                .findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor), Limit.of(limit + 1))
                 .stream()
                 .map(employeeMapper::toResponse)
                 .toList();
+
+        return PageResponse.of(rows, limit, response -> Cursors.encodeId(response.id()));
     }
 
     // Получение сотрудника по ID
@@ -41,24 +52,30 @@ public class EmployeeService {
     public EmployeeResponse createEmployee(EmployeeRequest request) {
         var employee = employeeMapper.toEntity(request);
         employeeRepository.save(employee);
+        employeeHierarchyIndex.invalidate();
 
         return employeeMapper.toResponse(employee);
     }
 
     // Обновление сотрудника
-    public EmployeeResponse updateEmployee(Long id, EmployeeRequest request) {
-        var existingEmployee = employeeRepository
-                .findById(id)
-                .orElseThrow(() -> new EmployeeNotFoundException(id));
+    public EmployeeResponse updateEmployee(Long id, EmployeeRequest request, Long expectedVersion) {
+        var response = optimisticRetry.execute(expectedVersion == null, () -> {
+            var existingEmployee = employeeRepository
+                    .findById(id)
+                    .orElseThrow(() -> new EmployeeNotFoundException(id));
+            Versions.check(id, expectedVersion, existingEmployee.getVersion());
+
+            existingEmployee.setName(request.getName());
+            existingEmployee.setPosition(request.getPosition());
+            existingEmployee.setSalary(request.getSalary());
+            existingEmployee.setDepartment(existingEmployee.getDepartment());
+            existingEmployee.setManager(existingEmployee.getManager());
 
-        existingEmployee.setName(request.getName());
-        existingEmployee.setPosition(request.getPosition());
-        existingEmployee.setSalary(request.getSalary());
-        existingEmployee.setDepartment(existingEmployee.getDepartment());
-        existingEmployee.setManager(existingEmployee.getManager());
-        employeeRepository.save(existingEmployee);
+            return employeeMapper.toResponse(employeeRepository.saveAndFlush(existingEmployee));
+        });
+        employeeHierarchyIndex.invalidate();
 
-        return employeeMapper.toResponse(existingEmployee);
+        return response;
     }
 
     // Удаление сотрудника
@@ -68,5 +85,67 @@ public class EmployeeService {
                 .orElseThrow(() -> new EmployeeNotFoundException(id));
 
         employeeRepository.deleteById(id);
+        employeeHierarchyIndex.invalidate();
+    }
+
+    // Прямые подчинённые сотрудника
+    public List<EmployeeNodeResponse> getDirectReports(Long id) {
+        if (employeeHierarchyIndex.isEnabled()) {
+            return employeeHierarchyIndex.directReports(id)
+                    .orElseThrow(() -> new EmployeeNotFoundException(id));
+        }
+
+        return existing(id, toNodes(employeeRepository.findDirectReports(id)));
+    }
+
+    // Все подчинённые сотрудника на любой глубине
+    public List<EmployeeNodeResponse> getSubtree(Long id) {
+        if (employeeHierarchyIndex.isEnabled()) {
+            return employeeHierarchyIndex.subtree(id)
+                    .orElseThrow(() -> new EmployeeNotFoundException(id));
+        }
+
+        return existing(id, toNodes(employeeRepository.findSubtree(id)));
+    }
+
+    // Цепочка руководителей до вершины иерархии
+    public List<EmployeeNodeResponse> getManagementChain(Long id) {
+        if (employeeHierarchyIndex.isEnabled()) {
+            return employeeHierarchyIndex.managementChain(id)
+                    .orElseThrow(() -> new EmployeeNotFoundException(id));
+        }
+
+        return existing(id, toNodes(employeeRepository.findManagementChain(id)));
+    }
+
+    // Численность и фонд оплаты труда поддерева
+    public PayrollResponse getSubtreePayroll(Long id) {
+        if (employeeHierarchyIndex.isEnabled()) {
+            return employeeHierarchyIndex.payroll(id)
+                    .orElseThrow(() -> new EmployeeNotFoundException(id));
+        }
+
+        var payroll = employeeRepository.findSubtreePayroll(id);
+        if (payroll.getEmployees() == 0) {
+            throw new EmployeeNotFoundException(id);
+        }
+
+        return new PayrollResponse(id, payroll.getEmployees(), payroll.getPayroll());
+    }
+
+    // Пустой результат отличается от несуществующего сотрудника только дополнительной проверкой
+    private List<EmployeeNodeResponse> existing(Long id, List<EmployeeNodeResponse> nodes) {
+        if (nodes.isEmpty() && !employeeRepository.existsById(id)) {
+            throw new EmployeeNotFoundException(id);
+        }
+
+        return nodes;
+    }
+
+    private static List<EmployeeNodeResponse> toNodes(List<EmployeeRepository.HierarchyNode> nodes) {
+        return nodes.stream()
+                .map(node -> new EmployeeNodeResponse(node.getId(), node.getName(), node.getPosition(),
+                        node.getSalary(), node.getManagerId(), node.getDepth()))
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.InventoryProperties;
+import com.onlineshop.test.dto.request.OrderItemRequest;
+import com.onlineshop.test.dto.request.ReservationRequest;
+import com.onlineshop.test.dto.request.StockRequest;
+import com.onlineshop.test.dto.response.ReservationResponse;
+import com.onlineshop.test.dto.response.StockResponse;
+import com.onlineshop.test.exception.InsufficientStockException;
+import com.onlineshop.test.exception.ProductNotFoundException;
+import com.onlineshop.test.exception.ReservationNotFoundException;
+import com.onlineshop.test.repository.InventoryRepository;
+import com.onlineshop.test.repository.InventoryRepository.Allocation;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Остатки продуктов и короткие резервирования под оформление заказа.
+// Продукты обрабатываются по возрастанию ID, чтобы параллельные транзакции блокировали шарды в одном порядке
+@Slf4j
+@Service
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class InventoryService {
+
+    InventoryRepository inventoryRepository;
+    InventoryProperties inventoryProperties;
+
+    public StockResponse getStock(Long productId) {
+        var available = inventoryRepository
+                .findAvailable(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+
+        return new StockResponse(productId, available,
+                inventoryRepository.findReserved(productId, LocalDateTime.now()));
+    }
+
+    // Установка доступного остатка; товар в действующих резервированиях сюда не входит
+    @Transactional
+    public StockResponse setStock(Long productId, StockRequest request) {
+        if (!inventoryRepository.setStock(productId, request.getQuantity())) {
+            throw new ProductNotFoundException(productId);
+        }
+
+        return getStock(productId);
+    }
+
+    // Резервирование списывает товар сразу; не подтверждённое к сроку возвращается на склад
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest request) {
+        var quantities = quantities(request.getItems());
+        var allocations = new ArrayList<Allocation>();
+        quantities.forEach((productId, quantity) -> allocations.addAll(take(productId, quantity)));
+
+        var id = UUID.randomUUID();
+        var expiresAt = LocalDateTime.now().plus(inventoryProperties.reservationTtl());
+        inventoryRepository.insertReservation(id, allocations, expiresAt);
+
+        return new ReservationResponse(id, expiresAt);
+    }
+
+    @Transactional
+    public void release(UUID reservationId) {
+        if (inventoryRepository.releaseReservation(reservationId) == 0) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+    }
+
+    // Подтверждение при оформлении заказа; недостающее списывается, лишнее возвращается на склад
+    @Transactional
+    public void confirm(UUID reservationId, Map<Long, Long> quantities) {
+        var reserved = inventoryRepository.confirmReservation(reservationId, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.groupingBy(Allocation::productId, Collectors.summingLong(Allocation::quantity)));
+        // Резервирование только из продуктов без учёта остатка не оставляет строк
+        if (reserved.isEmpty() && quantities.keySet().stream().anyMatch(inventoryRepository::isTracked)) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+
+        adjust(reserved, quantities);
+    }
+
+    // Списание по разнице между прежними и новыми количествами: создание, изменение и удаление заказа
+    @Transactional
+    public void adjust(Map<Long, Long> previous, Map<Long, Long> current) {
+        var productIds = new TreeSet<Long>(previous.keySet());
+        productIds.addAll(current.keySet());
+        for (var productId : productIds) {
+            var delta = current.getOrDefault(productId, 0L) - previous.getOrDefault(productId, 0L);
+            if (delta > 0) {
+                take(productId, delta);
+            } else if (delta < 0 && inventoryRepository.isTracked(productId)) {
+                inventoryRepository.restock(productId, -delta);
+            }
+        }
+    }
+
+    // Истёкшие резервирования возвращаются на склад пачками
+    @Scheduled(fixedDelayString = "${inventory.release-interval:10s}")
+    public void releaseExpired() {
+        var now = LocalDateTime.now();
+        var released = 0L;
+        long batch;
+        do {
+            batch = inventoryRepository.releaseExpired(now, inventoryProperties.releaseBatchSize());
+            released += batch;
+        } while (batch == inventoryProperties.releaseBatchSize());
+
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    // Сначала один шард без ожидания блокировок; если ни в одном свободном шарде не хватает - набираем по шардам.
+    // При нехватке исключение откатывает всю транзакцию вместе с уже списанным.
+    // Продукт, остаток которого ещё не устанавливали, продаётся без списания
+    private List<Allocation> take(Long productId, long quantity) {
+        var single = inventoryRepository.takeFromOneShard(productId, quantity);
+        if (single.isPresent()) {
+            return List.of(single.get());
+        }
+        if (!inventoryRepository.isTracked(productId)) {
+            return List.of();
+        }
+
+        var allocations = new ArrayList<Allocation>();
+        var remaining = quantity;
+        while (remaining > 0) {
+            var allocation = inventoryRepository.takeFromAnyShard(productId, remaining);
+            if (allocation.isPresent()) {
+                allocations.add(allocation.get());
+                remaining -= allocation.get().quantity();
+                continue;
+            }
+
+            // Шард, выбранный под блокировку, мог опустеть в конкурирующей транзакции: повтор, пока остаток не ноль
+            var available = inventoryRepository
+                    .findAvailable(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+            if (available == 0) {
+                throw new InsufficientStockException(productId, quantity);
+            }
+        }
+        return allocations;
+    }
+
+    private static Map<Long, Long> quantities(List<OrderItemRequest> items) {
+        return items.stream()
+                .collect(Collectors.groupingBy(OrderItemRequest::getProductId, TreeMap::new,
+                        Collectors.summingLong(OrderItemRequest::getQuantity)));
+    }
+}
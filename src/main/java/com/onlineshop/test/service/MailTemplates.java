@@ -0,0 +1,80 @@
+package com.onlineshop.test.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Шаблоны писем из classpath:mail/<name>.txt: первая строка "Subject: ...", дальше текст письма
+// с подстановками ${name}. Шаблон читается и разбирается один раз, отрисовка - только склейка готовых фрагментов
+@Component
+public class MailTemplates {
+
+    private static final String SUBJECT = "Subject:";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    public Template get(String name) {
+        return templates.computeIfAbsent(name, MailTemplates::load);
+    }
+
+    private static Template load(String name) {
+        String source;
+        try (var input = new ClassPathResource("mail/" + name + ".txt").getInputStream()) {
+            source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        var newline = source.indexOf('\n');
+        var header = newline < 0 ? source : source.substring(0, newline);
+        if (!header.startsWith(SUBJECT)) {
+            throw new IllegalStateException("Mail template " + name + " must start with a Subject line");
+        }
+
+        var body = newline < 0 ? "" : source.substring(newline + 1).stripLeading();
+        return new Template(compile(header.substring(SUBJECT.length()).strip()), compile(body));
+    }
+
+    static Text compile(String source) {
+        var literals = new ArrayList<String>();
+        var names = new ArrayList<String>();
+        var matcher = PLACEHOLDER.matcher(source);
+        var position = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(position, matcher.start()));
+            names.add(matcher.group(1));
+            position = matcher.end();
+        }
+        literals.add(source.substring(position));
+        return new Text(List.copyOf(literals), List.copyOf(names));
+    }
+
+    public record Template(Text subject, Text body) {
+    }
+
+    // Разобранный текст: literals на один длиннее names, подстановки стоят между фрагментами.
+    // Значение, которого нет в values, заменяется пустой строкой
+    public record Text(List<String> literals, List<String> names) {
+
+        public String render(Map<String, ?> values) {
+            var result = new StringBuilder(literals.getFirst());
+            for (int i = 0; i < names.size(); i++) {
+                var value = values.get(names.get(i));
+                if (value != null) {
+                    result.append(value);
+                }
+                result.append(literals.get(i + 1));
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.PaymentProperties;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Локальный шлюз для разработки и тестов: одобряет все запросы после настроенной задержки на пачку
+@Component
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@ConditionalOnProperty(prefix = "payment", name = "gateway", havingValue = "mock", matchIfMissing = true)
+public class MockPaymentGateway implements PaymentGateway {
+
+    PaymentProperties paymentProperties;
+
+    @Override
+    public int maxBatchSize() {
+        return paymentProperties.mock().maxBatchSize();
+    }
+
+    @Override
+    public List<Authorization> authorize(List<Request> requests) {
+        try {
+            Thread.sleep(paymentProperties.mock().latency());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payment authorization interrupted", ex);
+        }
+
+        // Ссылка выводится из ID заказа, поэтому повторная авторизация возвращает тот же результат
+        return requests.stream()
+                .map(request -> new Authorization(request.orderId(), true, "mock-" + request.orderId(), null))
+                .toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.OptimisticRetryProperties;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Изменение в отдельной транзакции с ограниченным числом повторов при конфликте версий (@Version).
+// Каждая попытка заново читает строку и применяет изменение, блокировки между попытками не держатся
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OptimisticRetry {
+
+    final TransactionTemplate transactionTemplate;
+    final OptimisticRetryProperties optimisticRetryProperties;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           OptimisticRetryProperties optimisticRetryProperties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticRetryProperties = optimisticRetryProperties;
+    }
+
+    // Без повторов конфликт сразу уходит вызывающему: клиент прислал If-Match и сам решает, что делать
+    public <T> T execute(boolean retry, Supplier<T> action) {
+        var attempts = retry ? optimisticRetryProperties.maxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= attempts) {
+                    throw ex;
+                }
+
+                log.debug("Optimistic lock conflict, attempt {} of {}", attempt, attempts);
+                pause(attempt, ex);
+            }
+        }
+    }
+
+    // Случайная пауза до backoff * 2^(attempt-1): конкурирующие писатели расходятся во времени
+    private void pause(int attempt, OptimisticLockingFailureException cause) {
+        var bound = optimisticRetryProperties.backoff().toMillis() << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
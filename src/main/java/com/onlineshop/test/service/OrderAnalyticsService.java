@@ -0,0 +1,204 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.OrderAnalyticsProperties;
+import com.onlineshop.test.configuration.PaginationProperties;
+import com.onlineshop.test.dto.response.EmployeeSalesResponse;
+import com.onlineshop.test.dto.response.OrderAmountStatsResponse;
+import com.onlineshop.test.dto.response.ProductSalesResponse;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+// Аналитика по заказам за последние дни из колоночного хранилища в памяти, без запросов к PostgreSQL.
+// Хранилище заполняется из базы при старте и пересобирается по расписанию, новые заказы дописываются после коммита
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderAnalyticsService {
+
+    private static final String SELECT_ORDERS = """
+            SELECT id, created_at, amount, employee_id
+            FROM orders
+            WHERE created_at >= ? AND created_at < ?
+            ORDER BY created_at
+            """;
+
+    private static final String SELECT_ITEMS = """
+            SELECT i.order_created_at, i.product_id, i.quantity, i.quantity * p.price AS revenue
+            FROM order_items i
+            JOIN products p ON p.id = i.product_id
+            WHERE i.order_created_at >= ? AND i.order_created_at < ?
+            ORDER BY i.order_created_at
+            """;
+
+    final JdbcTemplate jdbcTemplate;
+    final TransactionTemplate transactionTemplate;
+    final OrderAnalyticsProperties orderAnalyticsProperties;
+    final PaginationProperties paginationProperties;
+
+    final ReentrantLock rebuildLock = new ReentrantLock();
+    volatile OrderColumnStore store;
+
+    // Пока идёт пересборка, все закоммиченные заказы копятся здесь: заказ с created_at до границы пересборки
+    // может закоммититься уже после снимка. В новое хранилище дописываются только заказы, которых нет в снимке
+    List<OrderCreatedEvent> pending;
+
+    public OrderAnalyticsService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 OrderAnalyticsProperties orderAnalyticsProperties,
+                                 PaginationProperties paginationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Заказы и позиции читаются из одного снимка: иначе заказ, закоммиченный между запросами, попал бы
+        // в снимок только позициями
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.orderAnalyticsProperties = orderAnalyticsProperties;
+        this.paginationProperties = paginationProperties;
+        this.store = new OrderColumnStore(orderAnalyticsProperties.chunkSize());
+    }
+
+    // Продукты с наибольшей выручкой за период
+    public List<ProductSalesResponse> getProductSales(LocalDateTime from, LocalDateTime to, Integer size) {
+        return store.productSales(startOf(from), endOf(to), paginationProperties.resolve(size));
+    }
+
+    // Заказы и выручка по сотрудникам за период
+    public List<EmployeeSalesResponse> getEmployeeSales(LocalDateTime from, LocalDateTime to) {
+        return store.employeeSales(startOf(from), endOf(to));
+    }
+
+    // Количество, сумма и перцентили сумм заказов за период
+    public OrderAmountStatsResponse getAmountStats(LocalDateTime from, LocalDateTime to) {
+        return store.amountStats(startOf(from), endOf(to));
+    }
+
+    // Заказ попадает в хранилище только после коммита, откаченные заказы не учитываются
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (!orderAnalyticsProperties.enabled()) {
+            return;
+        }
+
+        synchronized (this) {
+            append(store, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        }
+    }
+
+    // Полная пересборка при старте и по расписанию: подхватывает изменения и заказы других экземпляров
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${order-analytics.rebuild-interval:15m}",
+            initialDelayString = "${order-analytics.rebuild-interval:15m}")
+    public void rebuild() {
+        if (!orderAnalyticsProperties.enabled() || !rebuildLock.tryLock()) {
+            return;
+        }
+
+        try {
+            var until = LocalDateTime.now();
+            var from = until.minus(orderAnalyticsProperties.window());
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+
+            var rebuilt = new OrderColumnStore(orderAnalyticsProperties.chunkSize());
+            long[] loaded;
+            try {
+                loaded = transactionTemplate.execute(status -> load(rebuilt, from, until));
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw ex;
+            }
+
+            synchronized (this) {
+                pending.stream()
+                        .filter(event -> !event.createdAt().isBefore(from))
+                        .filter(event -> Arrays.binarySearch(loaded, event.orderId()) < 0)
+                        .forEach(event -> append(rebuilt, event));
+                store = rebuilt;
+                pending = null;
+            }
+            log.info("Order analytics store rebuilt: {} orders since {}", rebuilt.orders(), from);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Куски старше окна освобождаются между пересборками
+    @Scheduled(fixedDelayString = "${order-analytics.evict-interval:1h}")
+    public void evict() {
+        store.evictBefore(epochSecond(LocalDateTime.now().minus(orderAnalyticsProperties.window())));
+    }
+
+    // Курсорное чтение в PostgreSQL работает только внутри транзакции.
+    // Возвращает отсортированные id загруженных заказов: по ним отсеиваются заказы, пришедшие во время пересборки
+    private long[] load(OrderColumnStore target, LocalDateTime from, LocalDateTime until) {
+        var ids = LongStream.builder();
+        query(SELECT_ORDERS, from, until, rs -> {
+            ids.add(rs.getLong("id"));
+            var employeeId = rs.getLong("employee_id");
+            var hasEmployee = !rs.wasNull();
+            target.append(epochSecond(rs.getTimestamp("created_at").toLocalDateTime()),
+                    rs.getLong("amount"), hasEmployee ? employeeId : null);
+        });
+        query(SELECT_ITEMS, from, until, rs -> target.appendItem(
+                epochSecond(rs.getTimestamp("order_created_at").toLocalDateTime()),
+                rs.getLong("product_id"), rs.getLong("quantity"), rs.getLong("revenue")));
+        return ids.build().sorted().toArray();
+    }
+
+    private void query(String sql, LocalDateTime from, LocalDateTime until, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(orderAnalyticsProperties.fetchSize());
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(until));
+            return statement;
+        }, handler);
+    }
+
+    private static void append(OrderColumnStore target, OrderCreatedEvent event) {
+        var createdAt = epochSecond(event.createdAt());
+        target.append(createdAt, event.amount(), event.employeeId());
+        for (var line : event.lines()) {
+            target.appendItem(createdAt, line.productId(), line.quantity(), line.revenue());
+        }
+    }
+
+    private long startOf(LocalDateTime from) {
+        return epochSecond(from != null ? from : LocalDateTime.now().minus(orderAnalyticsProperties.window()));
+    }
+
+    private static long endOf(LocalDateTime to) {
+        return to != null ? epochSecond(to) : Long.MAX_VALUE;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,263 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.dto.response.EmployeeSalesResponse;
+import com.onlineshop.test.dto.response.OrderAmountStatsResponse;
+import com.onlineshop.test.dto.response.ProductSalesResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Колоночное хранилище заказов в памяти: каждая колонка - примитивный массив, строки лежат кусками по chunkSize.
+// Писатель один (append под блокировкой), читатели не блокируются: строка видна после записи size куска.
+// Запросы сканируют куски параллельно в общем ForkJoinPool и сливают частичные агрегаты
+final class OrderColumnStore {
+
+    private static final int NO_EMPLOYEE = -1;
+
+    private final int chunkSize;
+    private final Dictionary products = new Dictionary();
+    private final Dictionary employees = new Dictionary();
+    private final List<OrderChunk> orderChunks = new CopyOnWriteArrayList<>();
+    private final List<ItemChunk> itemChunks = new CopyOnWriteArrayList<>();
+
+    OrderColumnStore(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    synchronized void append(long createdAt, long amount, Long employeeId) {
+        var chunk = orderChunks.isEmpty() ? null : orderChunks.get(orderChunks.size() - 1);
+        if (chunk == null || chunk.size == chunkSize) {
+            chunk = new OrderChunk(chunkSize);
+            orderChunks.add(chunk);
+        }
+
+        var row = chunk.size;
+        chunk.createdAt[row] = createdAt;
+        chunk.amount[row] = amount;
+        chunk.employee[row] = employeeId != null ? employees.encode(employeeId) : NO_EMPLOYEE;
+        chunk.maxCreatedAt = Math.max(chunk.maxCreatedAt, createdAt);
+        chunk.size = row + 1;
+    }
+
+    synchronized void appendItem(long createdAt, long productId, long quantity, long revenue) {
+        var chunk = itemChunks.isEmpty() ? null : itemChunks.get(itemChunks.size() - 1);
+        if (chunk == null || chunk.size == chunkSize) {
+            chunk = new ItemChunk(chunkSize);
+            itemChunks.add(chunk);
+        }
+
+        var row = chunk.size;
+        chunk.createdAt[row] = createdAt;
+        chunk.product[row] = products.encode(productId);
+        chunk.quantity[row] = quantity;
+        chunk.revenue[row] = revenue;
+        chunk.maxCreatedAt = Math.max(chunk.maxCreatedAt, createdAt);
+        chunk.size = row + 1;
+    }
+
+    // Куски, все строки которых старше границы окна, удаляются целиком
+    synchronized void evictBefore(long createdAt) {
+        orderChunks.removeIf(chunk -> chunk.size == chunkSize && chunk.maxCreatedAt < createdAt);
+        itemChunks.removeIf(chunk -> chunk.size == chunkSize && chunk.maxCreatedAt < createdAt);
+    }
+
+    long orders() {
+        return orderChunks.stream().mapToLong(chunk -> chunk.size).sum();
+    }
+
+    // Количество и выручка по продуктам за [from, to), по убыванию выручки
+    List<ProductSalesResponse> productSales(long from, long to, int limit) {
+        var totals = itemChunks.parallelStream()
+                .map(chunk -> chunk.productTotals(from, to, products))
+                .reduce(OrderColumnStore::merge)
+                .orElse(new long[0][]);
+
+        var ids = products.snapshot();
+        var result = new ArrayList<ProductSalesResponse>();
+        for (int code = 0; code < totals.length; code++) {
+            if (totals[code][0] != 0) {
+                result.add(new ProductSalesResponse(ids[code], totals[code][0], totals[code][1]));
+            }
+        }
+        result.sort(Comparator.comparing(ProductSalesResponse::revenue).reversed()
+                .thenComparing(ProductSalesResponse::productId));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    // Количество заказов и выручка по сотрудникам за [from, to)
+    List<EmployeeSalesResponse> employeeSales(long from, long to) {
+        var totals = orderChunks.parallelStream()
+                .map(chunk -> chunk.employeeTotals(from, to, employees))
+                .reduce(OrderColumnStore::merge)
+                .orElse(new long[0][]);
+
+        var ids = employees.snapshot();
+        var result = new ArrayList<EmployeeSalesResponse>();
+        for (int code = 0; code < totals.length; code++) {
+            if (totals[code][0] != 0) {
+                result.add(new EmployeeSalesResponse(ids[code], totals[code][0], totals[code][1]));
+            }
+        }
+        result.sort(Comparator.comparing(EmployeeSalesResponse::revenue).reversed()
+                .thenComparing(EmployeeSalesResponse::employeeId));
+        return result;
+    }
+
+    // Количество, сумма и перцентили сумм заказов за [from, to)
+    OrderAmountStatsResponse amountStats(long from, long to) {
+        var amounts = orderChunks.parallelStream()
+                .map(chunk -> chunk.amounts(from, to))
+                .reduce(OrderColumnStore::concat)
+                .orElse(new long[0]);
+        if (amounts.length == 0) {
+            return new OrderAmountStatsResponse(0L, 0L, null, null, null, null);
+        }
+
+        Arrays.parallelSort(amounts);
+        var revenue = Arrays.stream(amounts).sum();
+        return new OrderAmountStatsResponse((long) amounts.length, revenue,
+                percentile(amounts, 0.5), percentile(amounts, 0.9), percentile(amounts, 0.99),
+                amounts[amounts.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double rank) {
+        var index = (int) Math.ceil(rank * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    // Частичные агрегаты разных кусков могут быть разной длины: словарь растёт во время сканирования
+    private static long[][] merge(long[][] left, long[][] right) {
+        var longer = left.length >= right.length ? left : right;
+        var shorter = longer == left ? right : left;
+        for (int code = 0; code < shorter.length; code++) {
+            longer[code][0] += shorter[code][0];
+            longer[code][1] += shorter[code][1];
+        }
+        return longer;
+    }
+
+    private static long[] concat(long[] left, long[] right) {
+        var result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    private static long[][] accumulators(int size) {
+        var totals = new long[size][];
+        for (int code = 0; code < size; code++) {
+            totals[code] = new long[2];
+        }
+        return totals;
+    }
+
+    private static final class OrderChunk {
+
+        final long[] createdAt;
+        final long[] amount;
+        final int[] employee;
+        volatile long maxCreatedAt = Long.MIN_VALUE;
+        volatile int size;
+
+        OrderChunk(int capacity) {
+            createdAt = new long[capacity];
+            amount = new long[capacity];
+            employee = new int[capacity];
+        }
+
+        long[][] employeeTotals(long from, long to, Dictionary employees) {
+            var rows = size;
+            var totals = accumulators(employees.size());
+            for (int row = 0; row < rows; row++) {
+                var code = employee[row];
+                if (code != NO_EMPLOYEE && createdAt[row] >= from && createdAt[row] < to) {
+                    totals[code][0]++;
+                    totals[code][1] += amount[row];
+                }
+            }
+            return totals;
+        }
+
+        long[] amounts(long from, long to) {
+            var rows = size;
+            var selected = new long[rows];
+            var count = 0;
+            for (int row = 0; row < rows; row++) {
+                if (createdAt[row] >= from && createdAt[row] < to) {
+                    selected[count++] = amount[row];
+                }
+            }
+            return Arrays.copyOf(selected, count);
+        }
+    }
+
+    private static final class ItemChunk {
+
+        final long[] createdAt;
+        final int[] product;
+        final long[] quantity;
+        final long[] revenue;
+        volatile long maxCreatedAt = Long.MIN_VALUE;
+        volatile int size;
+
+        ItemChunk(int capacity) {
+            createdAt = new long[capacity];
+            product = new int[capacity];
+            quantity = new long[capacity];
+            revenue = new long[capacity];
+        }
+
+        long[][] productTotals(long from, long to, Dictionary products) {
+            var rows = size;
+            var totals = accumulators(products.size());
+            for (int row = 0; row < rows; row++) {
+                if (createdAt[row] >= from && createdAt[row] < to) {
+                    var code = product[row];
+                    totals[code][0] += quantity[row];
+                    totals[code][1] += revenue[row];
+                }
+            }
+            return totals;
+        }
+    }
+
+    // Словарь ID -> плотный код: группировка идёт по индексу массива, а не по хеш-таблице
+    private static final class Dictionary {
+
+        private final Map<Long, Integer> codes = new HashMap<>();
+        private volatile long[] ids = new long[64];
+        private volatile int size;
+
+        // Вызывается только писателем; size записывается последним и публикует новый код
+        int encode(long id) {
+            var code = codes.get(id);
+            if (code != null) {
+                return code;
+            }
+
+            var next = size;
+            var current = ids;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = id;
+            ids = current;
+            codes.put(id, next);
+            size = next + 1;
+            return next;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] snapshot() {
+            var count = size;
+            return Arrays.copyOf(ids, count);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.entity.Order;
+import com.onlineshop.test.entity.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Снимок оформленного заказа, публикуется из OrderService и обрабатывается после коммита;
+// он же - содержимое события order.created в outbox
+public record OrderCreatedEvent(
+        Long orderId,
+        LocalDateTime createdAt,
+        Long amount,
+        Long employeeId,
+        Long customerId,
+        List<Line> lines
+) {
+
+    public static final String TYPE = "order.created";
+
+    public static OrderCreatedEvent of(Order order) {
+        var employeeId = order.getEmployee() != null ? order.getEmployee().getId() : null;
+        var customerId = order.getCustomer() != null ? order.getCustomer().getId() : null;
+        var lines = order.getItems().stream()
+                .map(OrderCreatedEvent::line)
+                .toList();
+        return new OrderCreatedEvent(order.getId(), order.getCreatedAt(), order.getAmount(), employeeId,
+                customerId, lines);
+    }
+
+    private static Line line(OrderItem item) {
+        var product = item.getProduct();
+        return new Line(product.getId(), item.getQuantity(), Math.multiplyExact(product.getPrice(), item.getQuantity()));
+    }
+
+    public record Line(Long productId, Long quantity, Long revenue) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.ExportProperties;
+import com.onlineshop.test.dto.request.ExportFormat;
+import com.onlineshop.test.dto.request.OrderExportFilter;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// Выгрузка заказов курсором PostgreSQL: строки пишутся в ответ по мере чтения, память не растёт
+@Service
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class OrderExportService {
+
+    private static final String SELECT_ORDERS = """
+            SELECT o.id, o.amount, o.created_at, o.customer_id, c.name AS customer_name,
+                   o.employee_id, e.name AS employee_name
+            FROM orders o
+            LEFT JOIN customers c ON c.id = o.customer_id
+            LEFT JOIN employees e ON e.id = o.employee_id
+            """;
+
+    private static final String CSV_HEADER = "id,amount,created_at,customer_id,customer_name,employee_id,employee_name";
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    ObjectMapper objectMapper;
+    ExportProperties exportProperties;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              ExportProperties exportProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.exportProperties = exportProperties;
+    }
+
+    // Курсорное чтение в PostgreSQL работает только внутри транзакции (autocommit выключен)
+    public void export(OrderExportFilter filter, ExportFormat format, OutputStream out) {
+        try {
+            var writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+            transactionTemplate.executeWithoutResult(status -> query(filter, writer));
+            writer.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void query(OrderExportFilter filter, RowWriter writer) {
+        var conditions = new ArrayList<String>();
+        var args = new ArrayList<Object>();
+        if (filter.from() != null) {
+            conditions.add("o.created_at >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("o.created_at < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.customerId() != null) {
+            conditions.add("o.customer_id = ?");
+            args.add(filter.customerId());
+        }
+
+        var sql = SELECT_ORDERS
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n")
+                + "ORDER BY o.id";
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportProperties.fetchSize());
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeNumberField("amount", rs.getLong("amount"));
+            generator.writeStringField("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+            writeNullableLong("customerId", rs.getLong("customer_id"), rs.wasNull());
+            generator.writeStringField("customerName", rs.getString("customer_name"));
+            writeNullableLong("employeeId", rs.getLong("employee_id"), rs.wasNull());
+            generator.writeStringField("employeeName", rs.getString("employee_name"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNullableLong(String field, long value, boolean isNull) throws IOException {
+            if (isNull) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write(CSV_HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            var values = List.of(
+                    rs.getString("id"),
+                    rs.getString("amount"),
+                    rs.getTimestamp("created_at").toLocalDateTime().toString(),
+                    nullToEmpty(rs.getString("customer_id")),
+                    escape(rs.getString("customer_name")),
+                    nullToEmpty(rs.getString("employee_id")),
+                    escape(rs.getString("employee_name")));
+            writer.write(String.join(",", values));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.OrderMailProperties;
+import com.onlineshop.test.configuration.PaymentProperties;
+import com.onlineshop.test.entity.Customer;
+import com.onlineshop.test.entity.Product;
+import com.onlineshop.test.repository.CustomerRepository;
+import com.onlineshop.test.repository.MailDeadLetterRepository;
+import com.onlineshop.test.repository.OutboxEvent;
+import com.onlineshop.test.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Письма с подтверждением заказа - обработчик события order.created из outbox.
+// Письма уходят пачками по batch-size, каждая через одно SMTP-соединение, на выделенном пуле из senders потоков
+// с ограниченной очередью. Переполненная очередь (SMTP не успевает) отклоняет пачку, и outbox повторит её позже;
+// письмо, исчерпавшее попытки, сохраняется в mail_dead_letters
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderMailService implements OutboxEventHandler {
+
+    public static final String NAME = "mail";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    final JavaMailSender mailSender;
+    final MailTemplates mailTemplates;
+    final OrderMailProperties orderMailProperties;
+    final PaymentProperties paymentProperties;
+    final CustomerRepository customerRepository;
+    final ProductRepository productRepository;
+    final MailDeadLetterRepository mailDeadLetterRepository;
+    final ObjectMapper objectMapper;
+    final ThreadPoolExecutor executor;
+
+    public OrderMailService(JavaMailSender mailSender,
+                            MailTemplates mailTemplates,
+                            OrderMailProperties orderMailProperties,
+                            PaymentProperties paymentProperties,
+                            CustomerRepository customerRepository,
+                            ProductRepository productRepository,
+                            MailDeadLetterRepository mailDeadLetterRepository,
+                            ObjectMapper objectMapper) {
+        this.mailSender = mailSender;
+        this.mailTemplates = mailTemplates;
+        this.orderMailProperties = orderMailProperties;
+        this.paymentProperties = paymentProperties;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.mailDeadLetterRepository = mailDeadLetterRepository;
+        this.objectMapper = objectMapper;
+        this.executor = new ThreadPoolExecutor(orderMailProperties.senders(), orderMailProperties.senders(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(orderMailProperties.queueCapacity()),
+                Thread.ofPlatform().name("mail-sender-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(String eventType) {
+        return OrderCreatedEvent.TYPE.equals(eventType);
+    }
+
+    // Отправка пачек ждёт не дольше timeout, остальное - чтение клиентов и продуктов
+    @Override
+    public Duration maxDuration() {
+        return orderMailProperties.timeout();
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        var failure = handleBatch(List.of(event)).get(event.id());
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Ожидание ограничено timeout: пачка, не отправленная к сроку, повторяется outbox. Пачка, ещё ждущая
+    // в очереди, отменяется и не уходит; письмо может прийти дважды, только если отправка уже началась
+    @Override
+    public Map<Long, Exception> handleBatch(List<OutboxEvent> events) {
+        var failures = new HashMap<Long, Exception>();
+        var mails = render(events, failures);
+
+        var submissions = new ArrayList<Submission>();
+        for (int from = 0; from < mails.size(); from += orderMailProperties.batchSize()) {
+            var batch = mails.subList(from, Math.min(from + orderMailProperties.batchSize(), mails.size()));
+            try {
+                submissions.add(new Submission(batch, executor.submit(() -> send(batch))));
+            } catch (RejectedExecutionException ex) {
+                batch.forEach(mail -> failures.put(mail.eventId(), ex));
+            }
+        }
+
+        var deadline = System.nanoTime() + orderMailProperties.timeout().toNanos();
+        for (var submission : submissions) {
+            try {
+                failures.putAll(submission.result().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            } catch (ExecutionException ex) {
+                var cause = ex.getCause() instanceof Exception exception ? exception : ex;
+                submission.mails().forEach(mail -> failures.put(mail.eventId(), cause));
+            } catch (TimeoutException ex) {
+                submission.result().cancel(false);
+                submission.mails().forEach(mail -> failures.put(mail.eventId(), ex));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                submission.result().cancel(false);
+                submission.mails().forEach(mail -> failures.put(mail.eventId(), ex));
+            }
+        }
+        // Отменённые пачки освобождают место в очереди сразу, а не когда до них дойдёт отправитель
+        executor.purge();
+        return failures;
+    }
+
+    // Попытки исчерпаны: письмо сохраняется готовым к повторной отправке вместе с последней ошибкой
+    @Override
+    public void onFailure(OutboxEvent event, Exception failure) {
+        for (var mail : render(List.of(event), new HashMap<>())) {
+            log.warn("Order confirmation for order {} to {} moved to dead letters", mail.orderId(), mail.recipient());
+            mailDeadLetterRepository.insert(mail.orderId(), mail.recipient(), mail.subject(), mail.body(),
+                    failure.toString(), LocalDateTime.now());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Клиенты и продукты всей пачки читаются двумя запросами; клиенты без email письма не получают
+    private List<Mail> render(List<OutboxEvent> events, Map<Long, Exception> failures) {
+        var orders = new HashMap<Long, OrderCreatedEvent>();
+        for (var event : events) {
+            try {
+                orders.put(event.id(), objectMapper.readValue(event.payload(), OrderCreatedEvent.class));
+            } catch (IOException ex) {
+                failures.put(event.id(), ex);
+            }
+        }
+
+        var customers = customerRepository
+                .findAllById(orders.values().stream()
+                        .map(OrderCreatedEvent::customerId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        var products = productRepository
+                .findAllById(orders.values().stream()
+                        .flatMap(order -> order.lines().stream())
+                        .map(OrderCreatedEvent.Line::productId)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        var template = mailTemplates.get(orderMailProperties.template());
+        var mails = new ArrayList<Mail>();
+        for (var event : events) {
+            var order = orders.get(event.id());
+            var customer = order != null && order.customerId() != null ? customers.get(order.customerId()) : null;
+            if (customer == null || customer.getEmail() == null || customer.getEmail().isBlank()) {
+                continue;
+            }
+
+            var values = new HashMap<String, Object>();
+            values.put("orderId", order.orderId());
+            values.put("customerName", customer.getName());
+            values.put("createdAt", order.createdAt() != null ? order.createdAt().format(DATE_FORMAT) : null);
+            values.put("amount", order.amount());
+            values.put("currency", paymentProperties.currency());
+            values.put("lines", lines(order, products));
+            mails.add(new Mail(event.id(), order.orderId(), customer.getEmail(),
+                    template.subject().render(values), template.body().render(values)));
+        }
+        return mails;
+    }
+
+    private String lines(OrderCreatedEvent order, Map<Long, String> products) {
+        return order.lines().stream()
+                .map(line -> "- %s x %d: %d %s".formatted(
+                        products.getOrDefault(line.productId(), "#" + line.productId()),
+                        line.quantity(), line.revenue(), paymentProperties.currency()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    // Пачка уходит через одно соединение: JavaMailSender открывает транспорт один раз на массив сообщений.
+    // Возвращает ошибки по id события для писем, которые сервер не принял
+    private Map<Long, Exception> send(List<Mail> mails) {
+        var failures = new HashMap<Long, Exception>();
+        var eventIds = new IdentityHashMap<MimeMessage, Long>();
+        for (var mail : mails) {
+            try {
+                eventIds.put(message(mail), mail.eventId());
+            } catch (MessagingException ex) {
+                failures.put(mail.eventId(), ex);
+            }
+        }
+        if (eventIds.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(eventIds.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException ex) {
+            if (ex.getFailedMessages().isEmpty()) {
+                eventIds.values().forEach(eventId -> failures.put(eventId, ex));
+            }
+            ex.getFailedMessages().forEach((message, failure) -> {
+                var eventId = eventIds.get(message);
+                if (eventId != null) {
+                    failures.put(eventId, failure);
+                }
+            });
+        } catch (MailException ex) {
+            eventIds.values().forEach(eventId -> failures.put(eventId, ex));
+        }
+        return failures;
+    }
+
+    private MimeMessage message(Mail mail) throws MessagingException {
+        var message = mailSender.createMimeMessage();
+        var helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(orderMailProperties.from());
+        helper.setTo(mail.recipient());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.body());
+        return message;
+    }
+
+    private record Mail(Long eventId, Long orderId, String recipient, String subject, String body) {
+    }
+
+    private record Submission(List<Mail> mails, Future<Map<Long, Exception>> result) {
+    }
+}
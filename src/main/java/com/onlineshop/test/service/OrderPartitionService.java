@@ -0,0 +1,51 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.OrderPartitionProperties;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+// Обслуживание помесячных секций orders/order_items: создание будущих и архивирование старых
+@Slf4j
+@Service
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class OrderPartitionService {
+
+    JdbcTemplate jdbcTemplate;
+    OrderPartitionProperties orderPartitionProperties;
+
+    // Секции проверяются при старте и раз в сутки, чтобы новые заказы не попадали в секцию по умолчанию
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${order-partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        var created = createUpcomingPartitions();
+        var archived = archiveExpiredPartitions();
+        if (created > 0 || archived > 0) {
+            log.info("Order partitions: created {}, archived {}", created, archived);
+        }
+    }
+
+    // Текущий месяц и monthsAhead следующих
+    public int createUpcomingPartitions() {
+        var currentMonth = LocalDate.now().withDayOfMonth(1);
+        return jdbcTemplate.queryForObject("SELECT create_order_partitions(?, ?)", Integer.class,
+                Date.valueOf(currentMonth), orderPartitionProperties.monthsAhead() + 1);
+    }
+
+    // Секции старше retentionMonths отсоединяются и переносятся в архивную схему
+    public int archiveExpiredPartitions() {
+        var retainedFrom = LocalDate.now().withDayOfMonth(1).minusMonths(orderPartitionProperties.retentionMonths());
+        return jdbcTemplate.queryForObject("SELECT archive_order_partitions(?, ?)", Integer.class,
+                Date.valueOf(retainedFrom), orderPartitionProperties.archiveSchema());
+    }
+}
@@ -1,65 +1,209 @@
 package com.onlineshop.test.service;
 
+import com.onlineshop.test.configuration.PaginationProperties;
+import com.onlineshop.test.dto.request.OrderItemRequest;
 import com.onlineshop.test.dto.request.OrderRequest;
 import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.PageResponse;
+import com.onlineshop.test.dto.response.ResourceVersion;
+import com.onlineshop.test.entity.Order;
+import com.onlineshop.test.entity.OrderItem;
+import com.onlineshop.test.entity.OrderStatus;
+import com.onlineshop.test.entity.Product;
+import com.onlineshop.test.exception.CustomerNotFoundException;
+import com.onlineshop.test.exception.EmployeeNotFoundException;
+import com.onlineshop.test.exception.InvalidCursorException;
+import com.onlineshop.test.exception.OrderAmountOverflowException;
 import com.onlineshop.test.exception.OrderNotFoundException;
+import com.onlineshop.test.exception.ProductNotFoundException;
 import com.onlineshop.test.mapper.OrderMapper;
+import com.onlineshop.test.repository.CustomerRepository;
+import com.onlineshop.test.repository.EmployeeRepository;
 import com.onlineshop.test.repository.OrderRepository;
+import com.onlineshop.test.repository.ProductRepository;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class OrderService {
 
+    // Границы курсора по времени создания для первой страницы: в порядке возрастания и убывания
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     OrderMapper orderMapper;
     OrderRepository orderRepository;
+    PaginationProperties paginationProperties;
+    CustomerRepository customerRepository;
+    EmployeeRepository employeeRepository;
+    ProductRepository productRepository;
+    ApplicationEventPublisher eventPublisher;
+    InventoryService inventoryService;
+    OptimisticRetry optimisticRetry;
+    OutboxService outboxService;
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository
-                .findAll()
-                .stream()
-                .map(orderMapper::toResponse)
-                .toList();
+    // Заказы в порядке создания: seek по ключу секционирования, старые секции отсекаются планировщиком
+    public PageResponse<OrderResponse> getAllOrders(String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var after = decodeCursor(cursor, EARLIEST, 0L);
+        var rows = orderRepository.findResponsesAfter(after.createdAt(), after.id(), Limit.of(limit + 1));
+
+        return PageResponse.of(rows, limit, OrderService::encodeCursor);
     }
 
     public OrderResponse getOrderById(Long id) {
         return orderRepository
-                .findById(id)
-                .map(orderMapper::toResponse)
+                .findResponseById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
     }
 
+    public ResourceVersion getOrderVersion(Long id) {
+        return orderRepository
+                .findVersionById(id)
+                .orElseThrow(() -> new OrderNotFoundException(id));
+    }
+
+    // История заказов клиента, новые сначала
+    public PageResponse<OrderResponse> getCustomerOrders(Long customerId, String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var before = decodeCursor(cursor, LATEST, Long.MAX_VALUE);
+        var rows = orderRepository.findCustomerHistory(customerId, before.createdAt(), before.id(), Limit.of(limit + 1));
+        if (rows.isEmpty() && !customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException(customerId);
+        }
+
+        return PageResponse.of(rows, limit, OrderService::encodeCursor);
+    }
+
+    // Оформление заказа: позиции, сумма, списание со склада и событие outbox для почты и платежей
+    // пишутся в одной транзакции; оплата авторизуется в фоне, заказ ждёт её в статусе PENDING_PAYMENT
+    @Transactional
     public OrderResponse createOrder(OrderRequest request) {
         var order = orderMapper.toEntity(request);
+        order.setCustomer(customerRepository
+                .findById(request.getCustomerId())
+                .orElseThrow(() -> new CustomerNotFoundException(request.getCustomerId())));
+        order.setEmployee(employeeRepository
+                .findById(request.getEmployeeId())
+                .orElseThrow(() -> new EmployeeNotFoundException(request.getEmployeeId())));
+
+        // Точность timestamp в PostgreSQL - микросекунды: время в событии должно совпадать с сохранённым,
+        // по нему обработчики находят секцию заказа
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        order.setStatus(OrderStatus.PENDING_PAYMENT);
+        applyItems(order, request.getItems());
+        if (request.getReservationId() != null) {
+            inventoryService.confirm(request.getReservationId(), quantities(order.getItems()));
+        } else {
+            inventoryService.adjust(Map.of(), quantities(order.getItems()));
+        }
         orderRepository.save(order);
+        var event = OrderCreatedEvent.of(order);
+        eventPublisher.publishEvent(event);
+        outboxService.enqueue(OrderCreatedEvent.TYPE, order.getId(), event);
 
         return orderMapper.toResponse(order);
     }
 
-    public OrderResponse updateOrder(Long id, OrderRequest request) {
-        var existingOrder = orderRepository
-                .findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
+    // Обновление позиций заказа с пересчётом суммы; при конфликте версий транзакция повторяется целиком,
+    // вместе с корректировкой остатков
+    public OrderResponse updateOrder(Long id, OrderRequest request, Long expectedVersion) {
+        return optimisticRetry.execute(expectedVersion == null, () -> {
+            var existingOrder = orderRepository
+                    .findById(id)
+                    .orElseThrow(() -> new OrderNotFoundException(id));
+            Versions.check(id, expectedVersion, existingOrder.getVersion());
 
-        existingOrder.setAmount(request.getAmount());
-        existingOrder.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(existingOrder);
+            var previous = quantities(existingOrder.getItems());
+            applyItems(existingOrder, request.getItems());
+            inventoryService.adjust(previous, quantities(existingOrder.getItems()));
+            existingOrder.setUpdatedAt(LocalDateTime.now());
 
-        return orderMapper.toResponse(existingOrder);
+            return orderMapper.toResponse(orderRepository.saveAndFlush(existingOrder));
+        });
     }
 
+    // Удаление заказа возвращает его позиции на склад
+    @Transactional
     public void deleteOrder(Long id) {
-        orderRepository
+        var order = orderRepository
                 .findById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
 
+        inventoryService.adjust(quantities(order.getItems()), Map.of());
         orderRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    // Курсор заказов - пара (created_at, id); без курсора подставляется граница первой страницы
+    private static CreatedAtCursor decodeCursor(String cursor, LocalDateTime firstCreatedAt, long firstId) {
+        if (cursor == null || cursor.isBlank()) {
+            return new CreatedAtCursor(firstCreatedAt, firstId);
+        }
+
+        var keyset = Cursors.decodeKeyset(cursor);
+        try {
+            return new CreatedAtCursor(LocalDateTime.parse(keyset.value()), keyset.id());
+        } catch (DateTimeParseException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static String encodeCursor(OrderResponse response) {
+        return Cursors.encodeKeyset(response.createdAt().toString(), response.id());
+    }
+
+    // Цены всех продуктов заказа читаются одним запросом, сумма считается на сервере
+    private void applyItems(Order order, List<OrderItemRequest> items) {
+        var productIds = items.stream()
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        var products = productRepository
+                .findAllById(productIds)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        var amount = 0L;
+        order.getItems().clear();
+        for (var item : items) {
+            var product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException(item.getProductId());
+            }
+
+            try {
+                amount = Math.addExact(amount, Math.multiplyExact(product.getPrice(), item.getQuantity()));
+            } catch (ArithmeticException ex) {
+                throw new OrderAmountOverflowException();
+            }
+            order.getItems().add(new OrderItem(null, order, order.getCreatedAt(), product, item.getQuantity()));
+        }
+
+        order.setAmount(amount);
+    }
+
+    private static Map<Long, Long> quantities(List<OrderItem> items) {
+        return items.stream()
+                .collect(Collectors.groupingBy(item -> item.getProduct().getId(),
+                        Collectors.summingLong(OrderItem::getQuantity)));
+    }
+
+    private record CreatedAtCursor(LocalDateTime createdAt, long id) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.repository.OutboxEvent;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Получатель событий outbox (почта, платежи). Доставка "хотя бы один раз": после сбоя или истечения аренды
+// событие приходит повторно, поэтому обработка должна быть идемпотентной по id события или агрегата
+public interface OutboxEventHandler {
+
+    // Имя обработчика хранится в строках outbox и не должно меняться, пока есть недоставленные события
+    String name();
+
+    boolean supports(String eventType);
+
+    // Исключение означает неудачную попытку: событие будет повторено с увеличивающейся задержкой
+    void handle(OutboxEvent event) throws Exception;
+
+    // Пачка событий этого обработчика из одного захвата. Возвращает ошибки по id события,
+    // события без ошибки считаются доставленными. Обработчик с пакетным API внешней системы переопределяет метод
+    default Map<Long, Exception> handleBatch(List<OutboxEvent> events) {
+        var failures = new HashMap<Long, Exception>();
+        for (var event : events) {
+            try {
+                handle(event);
+            } catch (Exception ex) {
+                failures.put(event.id(), ex);
+            }
+        }
+        return failures;
+    }
+
+    // Верхняя граница handleBatch по времени; аренда outbox.lease должна быть строго больше,
+    // иначе другой диспетчер заберёт ещё обрабатываемые события и доставит их повторно
+    default Duration maxDuration() {
+        return Duration.ZERO;
+    }
+
+    // Событие исчерпало попытки и больше доставляться не будет; failure - ошибка последней попытки
+    default void onFailure(OutboxEvent event, Exception failure) {
+    }
+}
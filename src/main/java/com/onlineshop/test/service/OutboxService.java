@@ -0,0 +1,166 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.OutboxProperties;
+import com.onlineshop.test.repository.OutboxEvent;
+import com.onlineshop.test.repository.OutboxRepository;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Транзакционный outbox: событие пишется в транзакции бизнес-операции, отдельной строкой на каждый
+// подписанный обработчик, и доставляется диспетчером после коммита. Оформление заказа не ждёт почту и платежи,
+// а откат транзакции отменяет и событие
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxService {
+
+    // Текст ошибки в строке outbox обрезается: полный стек остаётся в логе
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    final OutboxRepository outboxRepository;
+    final OutboxProperties outboxProperties;
+    final ObjectMapper objectMapper;
+    final Map<String, OutboxEventHandler> handlers;
+
+    public OutboxService(OutboxRepository outboxRepository,
+                         OutboxProperties outboxProperties,
+                         ObjectMapper objectMapper,
+                         List<OutboxEventHandler> handlers) {
+        this.outboxRepository = outboxRepository;
+        this.outboxProperties = outboxProperties;
+        this.objectMapper = objectMapper;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toUnmodifiableMap(OutboxEventHandler::name, Function.identity()));
+
+        // Аренда продлевается перед каждым обработчиком, поэтому её хватает на самый долгий из них
+        for (var handler : handlers) {
+            if (handler.maxDuration().compareTo(outboxProperties.lease()) >= 0) {
+                throw new IllegalStateException("outbox.lease " + outboxProperties.lease()
+                        + " must exceed the " + handler.maxDuration() + " the outbox handler " + handler.name()
+                        + " may take");
+            }
+        }
+    }
+
+    // Вызывается только внутри транзакции бизнес-операции
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Long aggregateId, Object payload) {
+        var subscribers = handlers.values().stream()
+                .filter(handler -> handler.supports(eventType))
+                .map(OutboxEventHandler::name)
+                .sorted()
+                .toList();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        try {
+            outboxRepository.insert(eventType, aggregateId, subscribers,
+                    objectMapper.writeValueAsString(payload), LocalDateTime.now());
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Пачки забираются, пока очередь не опустеет; каждая пачка держится арендой, а не транзакцией.
+    // События пачки передаются обработчикам группами, чтобы обработчик мог отправить их одним запросом.
+    // Перед каждой группой аренда продлевается: обработчики идут друг за другом, и их время складывается
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:500ms}")
+    public void dispatch() {
+        List<OutboxEvent> batch;
+        do {
+            var now = LocalDateTime.now();
+            batch = outboxRepository.claim(now, now.plus(outboxProperties.lease()), outboxProperties.batchSize());
+            batch.stream()
+                    .collect(Collectors.groupingBy(OutboxEvent::handler, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((name, events) -> deliver(name, renew(events)));
+        } while (batch.size() == outboxProperties.batchSize());
+    }
+
+    private List<OutboxEvent> renew(List<OutboxEvent> events) {
+        var renewed = outboxRepository.renew(events, LocalDateTime.now().plus(outboxProperties.lease()));
+        if (renewed.size() < events.size()) {
+            log.warn("Outbox lease of {} events expired before delivery, they are left to another dispatcher",
+                    events.size() - renewed.size());
+        }
+        return renewed;
+    }
+
+    private void deliver(String name, List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        var handler = handlers.get(name);
+        Map<Long, Exception> failures;
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler " + name);
+            }
+
+            failures = handler.handleBatch(events);
+        } catch (RuntimeException ex) {
+            failures = events.stream().collect(Collectors.toMap(OutboxEvent::id, event -> ex));
+        }
+
+        for (var event : events) {
+            var failure = failures.get(event.id());
+            var owned = failure == null ? outboxRepository.delete(event) : retryOrFail(handler, event, failure);
+            if (!owned) {
+                log.warn("Outbox event {} ({} -> {}) was claimed by another dispatcher during attempt {}",
+                        event.id(), event.eventType(), event.handler(), event.attempt());
+            }
+        }
+    }
+
+    // false, если аренда истекла и событие уже забрал другой диспетчер: тогда исход решает он
+    private boolean retryOrFail(OutboxEventHandler handler, OutboxEvent event, Exception failure) {
+        var error = truncate(failure.toString());
+        if (event.attempt() < outboxProperties.maxAttempts()) {
+            log.warn("Outbox event {} ({} -> {}) attempt {} failed: {}",
+                    event.id(), event.eventType(), event.handler(), event.attempt(), error);
+            return outboxRepository.reschedule(event, LocalDateTime.now().plus(backoff(event.attempt())), error);
+        }
+
+        if (!outboxRepository.fail(event, LocalDateTime.now(), error)) {
+            return false;
+        }
+        log.error("Outbox event {} ({} -> {}) failed after {} attempts",
+                event.id(), event.eventType(), event.handler(), event.attempt(), failure);
+        if (handler != null) {
+            try {
+                handler.onFailure(event, failure);
+            } catch (RuntimeException ex) {
+                log.error("Outbox handler {} failed to process failure of event {}", event.handler(), event.id(), ex);
+            }
+        }
+        return true;
+    }
+
+    // Экспоненциальная задержка: initial-backoff * 2^(attempt-1), не больше max-backoff
+    Duration backoff(int attempt) {
+        var shift = Math.min(attempt - 1, 30);
+        var delay = outboxProperties.initialBackoff().multipliedBy(1L << shift);
+        return delay.compareTo(outboxProperties.maxBackoff()) > 0 ? outboxProperties.maxBackoff() : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
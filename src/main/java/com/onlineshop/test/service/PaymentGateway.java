@@ -0,0 +1,21 @@
+package com.onlineshop.test.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Платёжный шлюз; реализация выбирается свойством payment.gateway
+public interface PaymentGateway {
+
+    // Сколько авторизаций шлюз принимает одним запросом; 1 - шлюз без пакетного API
+    int maxBatchSize();
+
+    // Ответ содержит по результату на каждый запрос. Исключение означает сбой всего запроса.
+    // ID заказа служит ключом идемпотентности: повтор после сбоя не создаёт второе списание
+    List<Authorization> authorize(List<Request> requests);
+
+    record Request(Long orderId, BigDecimal amount, String currency) {
+    }
+
+    record Authorization(Long orderId, boolean approved, String reference, String declineReason) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.PaymentProperties;
+import com.onlineshop.test.entity.OrderStatus;
+import com.onlineshop.test.repository.OrderRepository;
+import com.onlineshop.test.repository.OutboxEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Авторизация оплаты заказов - обработчик события order.created из outbox.
+// Вызовы шлюза идут пачками на виртуальных потоках: одновременно не больше max-concurrency запросов,
+// каждый ограничен timeout, серия сбоев размыкает цепь. Во время вызова не держатся ни поток запроса,
+// ни соединение с базой: статус заказа записывается отдельным коротким UPDATE после ответа шлюза
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PaymentService implements OutboxEventHandler {
+
+    public static final String NAME = "payment";
+
+    final PaymentGateway paymentGateway;
+    final PaymentProperties paymentProperties;
+    final OrderRepository orderRepository;
+    final ObjectMapper objectMapper;
+    final Semaphore inFlight;
+    final CircuitBreaker circuitBreaker;
+    final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PaymentService(PaymentGateway paymentGateway,
+                          PaymentProperties paymentProperties,
+                          OrderRepository orderRepository,
+                          ObjectMapper objectMapper) {
+        this.paymentGateway = paymentGateway;
+        this.paymentProperties = paymentProperties;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.inFlight = new Semaphore(paymentProperties.maxConcurrency());
+        this.circuitBreaker = new CircuitBreaker(paymentProperties.circuitBreaker().failureThreshold(),
+                paymentProperties.circuitBreaker().openDuration());
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(String eventType) {
+        return OrderCreatedEvent.TYPE.equals(eventType);
+    }
+
+    // Ожидание семафора всеми пачками ограничено одним timeout, и каждый вызов, начатый до этого срока,
+    // завершается не позже чем через timeout
+    @Override
+    public Duration maxDuration() {
+        return paymentProperties.timeout().multipliedBy(2);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        var failure = handleBatch(List.of(event)).get(event.id());
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public Map<Long, Exception> handleBatch(List<OutboxEvent> events) {
+        var failures = new HashMap<Long, Exception>();
+        var requests = new ArrayList<PaymentGateway.Request>();
+        var eventIds = new HashMap<Long, Long>();
+        var createdAts = new HashMap<Long, LocalDateTime>();
+        for (var event : events) {
+            try {
+                var order = objectMapper.readValue(event.payload(), OrderCreatedEvent.class);
+                var amount = BigDecimal.valueOf(order.amount() != null ? order.amount() : 0L);
+
+                // Сумма ниже минимальной отклоняется без обращения к шлюзу
+                if (amount.compareTo(paymentProperties.minAmount()) < 0) {
+                    updateStatus(order.orderId(), order.createdAt(), OrderStatus.PAYMENT_DECLINED);
+                    continue;
+                }
+
+                requests.add(new PaymentGateway.Request(order.orderId(), amount, paymentProperties.currency()));
+                eventIds.put(order.orderId(), event.id());
+                createdAts.put(order.orderId(), order.createdAt());
+            } catch (IOException ex) {
+                failures.put(event.id(), ex);
+            }
+        }
+
+        var batchSize = Math.max(1, Math.min(paymentProperties.batchSize(), paymentGateway.maxBatchSize()));
+        var deadline = System.nanoTime() + paymentProperties.timeout().toNanos();
+        var calls = new ArrayList<Call>();
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            var chunk = requests.subList(from, Math.min(from + batchSize, requests.size()));
+            calls.add(new Call(chunk, authorize(chunk, deadline)));
+        }
+
+        // Все пачки уже отправлены, ответы собираются по мере готовности
+        for (var call : calls) {
+            try {
+                var authorizations = call.result().join().stream()
+                        .collect(Collectors.toMap(PaymentGateway.Authorization::orderId, Function.identity()));
+                for (var request : call.requests()) {
+                    var authorization = authorizations.get(request.orderId());
+                    if (authorization == null) {
+                        failures.put(eventIds.get(request.orderId()),
+                                new IllegalStateException("No authorization for order " + request.orderId()));
+                    } else {
+                        apply(authorization, createdAts.get(request.orderId()));
+                    }
+                }
+            } catch (CompletionException ex) {
+                var cause = ex.getCause() instanceof Exception exception ? exception : ex;
+                call.requests().forEach(request -> failures.put(eventIds.get(request.orderId()), cause));
+            }
+        }
+        return failures;
+    }
+
+    // Попытки исчерпаны: заказ не оплачен, дальнейшее решение за оператором
+    @Override
+    public void onFailure(OutboxEvent event, Exception failure) {
+        try {
+            var order = objectMapper.readValue(event.payload(), OrderCreatedEvent.class);
+            updateStatus(order.orderId(), order.createdAt(), OrderStatus.PAYMENT_FAILED);
+        } catch (IOException ex) {
+            log.error("Payment of order {} failed, but its event {} is unreadable", event.aggregateId(), event.id(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Вызов шлюза для одной пачки. Разрешение семафора освобождается по завершении самого вызова,
+    // а не по таймауту, поэтому зависшие запросы тоже учитываются в лимите. Семафор ждётся до общего для
+    // всех пачек срока deadline, чтобы время обработки не росло с числом пачек
+    private CompletableFuture<List<PaymentGateway.Authorization>> authorize(List<PaymentGateway.Request> chunk,
+                                                                            long deadline) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Payment gateway circuit is open"));
+        }
+
+        try {
+            if (!inFlight.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                circuitBreaker.onFailure();
+                return CompletableFuture.failedFuture(new IllegalStateException("Payment gateway is saturated"));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onFailure();
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return paymentGateway.authorize(chunk);
+                    } finally {
+                        inFlight.release();
+                    }
+                }, executor)
+                .orTimeout(paymentProperties.timeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((authorizations, ex) -> {
+                    if (ex == null) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                });
+    }
+
+    private void apply(PaymentGateway.Authorization authorization, LocalDateTime createdAt) {
+        if (authorization.approved()) {
+            updateStatus(authorization.orderId(), createdAt, OrderStatus.PAID);
+        } else {
+            log.info("Payment for order {} declined: {}", authorization.orderId(), authorization.declineReason());
+            updateStatus(authorization.orderId(), createdAt, OrderStatus.PAYMENT_DECLINED);
+        }
+    }
+
+    private void updateStatus(Long orderId, LocalDateTime createdAt, OrderStatus status) {
+        orderRepository.updateStatus(orderId, createdAt, OrderStatus.PENDING_PAYMENT, status, LocalDateTime.now());
+    }
+
+    private record Call(List<PaymentGateway.Request> requests,
+                        CompletableFuture<List<PaymentGateway.Authorization>> result) {
+    }
+}
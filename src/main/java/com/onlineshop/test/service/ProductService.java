@@ -1,17 +1,33 @@
 package com.onlineshop.test.service;
 
+import com.onlineshop.test.configuration.CacheConfiguration;
+import com.onlineshop.test.configuration.PaginationProperties;
+import com.onlineshop.test.configuration.ProductSearchProperties;
+import com.onlineshop.test.dto.request.ProductFilter;
 import com.onlineshop.test.dto.request.ProductRequest;
+import com.onlineshop.test.dto.request.ProductSort;
+import com.onlineshop.test.dto.response.ImportReport;
+import com.onlineshop.test.dto.response.PageResponse;
 import com.onlineshop.test.dto.response.ProductResponse;
+import com.onlineshop.test.dto.response.ProductSearchResponse;
 import com.onlineshop.test.entity.Product;
+import com.onlineshop.test.exception.InvalidCursorException;
 import com.onlineshop.test.exception.ProductNotFoundException;
 import com.onlineshop.test.mapper.ProductMapper;
 import com.onlineshop.test.repository.ProductRepository;
+import com.onlineshop.test.repository.ProductSpecifications;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @AllArgsConstructor
@@ -20,17 +36,87 @@ public class ProductService {
 
     ProductMapper productMapper;
     ProductRepository productRepository;
+    PaginationProperties paginationProperties;
+    BulkImportService bulkImportService;
+    ProductSearchProperties productSearchProperties;
+    OptimisticRetry optimisticRetry;
 
     // Получение всех продуктов
-    public List<ProductResponse> getAllProducts() {
+    public PageResponse<ProductResponse> getAllProducts(String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var rows = productRepository
+                .findByIdGreaterThanOrderByIdAsc(Cursors.decodeId(cursor), Limit.of(limit + 1))
+                .stream()
+                .map(productMapper::toResponse)
+                .toList();
+
+        return PageResponse.of(rows, limit, response -> Cursors.encodeId(response.id()));
+    }
+
+    // Каталог с фильтром по цене и сортировкой по цене или названию
+    public PageResponse<ProductResponse> getCatalog(ProductFilter filter, String sort, String cursor, Integer size) {
+        var limit = paginationProperties.resolve(size);
+        var productSort = ProductSort.of(sort);
+        var specification = ProductSpecifications.matches(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(after(productSort, cursor));
+        }
+
+        var rows = productRepository
+                .findBy(specification, query -> query.sortBy(productSort.sort()).limit(limit + 1).all())
+                .stream()
+                .map(productMapper::toResponse)
+                .toList();
+
+        return PageResponse.of(rows, limit, response -> catalogCursor(productSort, response));
+    }
+
+    // Полнотекстовый поиск по названию, самые релевантные первыми
+    public PageResponse<ProductSearchResponse> searchProducts(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            return new PageResponse<>(List.of(), null);
+        }
+
+        var limit = paginationProperties.resolve(size);
+        var rank = Float.POSITIVE_INFINITY;
+        var id = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            var keyset = Cursors.decodeKeyset(cursor);
+            rank = parseRank(keyset.value(), cursor);
+            id = keyset.id();
+        }
+
+        var rows = productRepository
+                .search(query, rank, id, productSearchProperties.maxCandidates(), limit + 1)
+                .stream()
+                .map(hit -> new ProductSearchResponse(hit.getId(), hit.getName(), hit.getPrice(), hit.getRank()))
+                .toList();
+
+        return PageResponse.of(rows, limit,
+                response -> Cursors.encodeKeyset(Float.toString(response.rank()), response.id()));
+    }
+
+    // Подсказки по началу названия с учётом опечаток
+    public List<ProductResponse> autocompleteProducts(String query, Integer size) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        var term = query.strip().toLowerCase(Locale.ROOT);
+        var prefix = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        var limit = size == null
+                ? productSearchProperties.autocompleteSize()
+                : Math.max(1, Math.min(size, productSearchProperties.maxAutocompleteSize()));
+
         return productRepository
-                .findAll()
+                .autocomplete(term, prefix, limit)
                 .stream()
                 .map(productMapper::toResponse)
                 .toList();
     }
 
     // Получение продукта по ID
+    @Cacheable(cacheNames = CacheConfiguration.PRODUCTS, key = "#id")
     public ProductResponse getProductById(Long id) {
         return productRepository
                 .findById(id)
@@ -46,21 +132,24 @@ public class ProductService {
         return productMapper.toResponse(product);
     }
 
-    // Обновление продукта
-    public ProductResponse updateProduct(Long id, ProductRequest request) {
-        var existingProduct = productRepository
-                .findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
-
-        existingProduct.setName(request.getName());
-        existingProduct.setPrice(request.getPrice());
+    // Обновление продукта; expectedVersion - версия из If-Match
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, key = "#id")
+    public ProductResponse updateProduct(Long id, ProductRequest request, Long expectedVersion) {
+        return optimisticRetry.execute(expectedVersion == null, () -> {
+            var existingProduct = productRepository
+                    .findById(id)
+                    .orElseThrow(() -> new ProductNotFoundException(id));
+            Versions.check(id, expectedVersion, existingProduct.getVersion());
 
-        productRepository.save(existingProduct);
+            existingProduct.setName(request.getName());
+            existingProduct.setPrice(request.getPrice());
 
-        return productMapper.toResponse(existingProduct);
+            return productMapper.toResponse(productRepository.saveAndFlush(existingProduct));
+        });
     }
 
     // Удаление продукта
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUCTS, key = "#id")
     public void deleteProduct(Long id) {
         productRepository
                 .findById(id)
@@ -68,4 +157,49 @@ public class ProductService {
 
         productRepository.deleteById(id);
     }
+
+    // Массовый импорт продуктов из JSON-массива
+    public ImportReport importProductsJson(InputStream body) {
+        return bulkImportService.importJson(body, ProductRequest.class, productMapper::toEntity);
+    }
+
+    // Массовый импорт продуктов из CSV с заголовком name,price
+    public ImportReport importProductsCsv(InputStream body) {
+        return bulkImportService.importCsv(body, ProductService::parseCsv, productMapper::toEntity);
+    }
+
+    // Курсор каталога - значение поля сортировки и id последней строки
+    private static String catalogCursor(ProductSort sort, ProductResponse response) {
+        var value = "name".equals(sort.attribute()) ? response.name() : String.valueOf(response.price());
+        return Cursors.encodeKeyset(value, response.id());
+    }
+
+    private static Specification<Product> after(ProductSort sort, String cursor) {
+        var keyset = Cursors.decodeKeyset(cursor);
+        if ("name".equals(sort.attribute())) {
+            return ProductSpecifications.after("name", keyset.value(), keyset.id(), sort.descending());
+        }
+
+        try {
+            var price = Long.valueOf(keyset.value());
+            return ProductSpecifications.after("price", price, keyset.id(), sort.descending());
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static float parseRank(String value, String cursor) {
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static ProductRequest parseCsv(List<String> values) {
+        var request = new ProductRequest();
+        request.setName(values.get(0));
+        request.setPrice(values.get(1).isEmpty() ? null : Long.valueOf(values.get(1)));
+        return request;
+    }
 }
\ No newline at end of file
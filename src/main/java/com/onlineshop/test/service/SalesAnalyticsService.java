@@ -0,0 +1,55 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.PaginationProperties;
+import com.onlineshop.test.dto.response.DailyRevenueResponse;
+import com.onlineshop.test.dto.response.DepartmentRevenueResponse;
+import com.onlineshop.test.dto.response.EmployeeRevenueResponse;
+import com.onlineshop.test.dto.response.ProductRevenueResponse;
+import com.onlineshop.test.repository.SalesAnalyticsRepository;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@AllArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class SalesAnalyticsService {
+
+    // Период дневной выручки по умолчанию
+    private static final int DEFAULT_DAYS = 30;
+
+    SalesAnalyticsRepository salesAnalyticsRepository;
+    PaginationProperties paginationProperties;
+
+    // Дневная выручка за период, по умолчанию за последние 30 дней
+    public List<DailyRevenueResponse> getDailyRevenue(LocalDate from, LocalDate to) {
+        var end = to != null ? to : LocalDate.now();
+        var start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+
+        return salesAnalyticsRepository.findDailyRevenue(start, end);
+    }
+
+    // Продукты с наибольшей выручкой
+    public List<ProductRevenueResponse> getTopProducts(Integer size) {
+        return salesAnalyticsRepository.findTopProducts(paginationProperties.resolve(size));
+    }
+
+    public List<EmployeeRevenueResponse> getEmployeeRevenue() {
+        return salesAnalyticsRepository.findEmployeeRevenue();
+    }
+
+    public List<DepartmentRevenueResponse> getDepartmentRevenue() {
+        return salesAnalyticsRepository.findDepartmentRevenue();
+    }
+
+    // Свёртка дельт держит таблицы дельт маленькими, на точность чтения она не влияет
+    @Scheduled(fixedDelayString = "${analytics.fold-interval:5s}")
+    public void foldDeltas() {
+        salesAnalyticsRepository.foldDeltas();
+    }
+}
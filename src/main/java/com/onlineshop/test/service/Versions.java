@@ -0,0 +1,16 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.exception.VersionMismatchException;
+
+// Проверка версии из If-Match до изменения записи; без ожидаемой версии проверка пропускается
+final class Versions {
+
+    private Versions() {
+    }
+
+    static void check(Long id, Long expectedVersion, Long actualVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion)) {
+            throw new VersionMismatchException(id, expectedVersion, actualVersion);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Transactional outbox: events are inserted in the same transaction as the business change and delivered
+-- afterwards by a background dispatcher, so checkout never waits for mail or payment providers.
+-- One row per (event, handler): handlers are retried independently of each other.
+-- A dispatcher claims a batch with FOR UPDATE SKIP LOCKED and holds it through a lease (locked_until);
+-- rows of a crashed dispatcher become available again when the lease expires.
+
+CREATE TABLE outbox_events (
+                               id BIGSERIAL PRIMARY KEY,
+                               event_type VARCHAR(64) NOT NULL,
+                               aggregate_id BIGINT,
+                               handler VARCHAR(64) NOT NULL,
+                               payload JSONB NOT NULL,
+                               created_at TIMESTAMP NOT NULL,
+                               available_at TIMESTAMP NOT NULL,
+                               locked_until TIMESTAMP,
+                               attempts INT NOT NULL DEFAULT 0,
+                               last_error TEXT,
+                               failed_at TIMESTAMP
+);
+
+-- Pending rows in delivery order; delivered rows are deleted, rows out of attempts stay with failed_at set
+CREATE INDEX idx_outbox_events_available_at ON outbox_events (available_at, id) WHERE failed_at IS NULL;
@@ -0,0 +1,6 @@
+-- Payment status of an order, written back by the asynchronous payment authorization (outbox handler "payment").
+-- New orders start as PENDING_PAYMENT; orders placed before payments existed are treated as paid.
+-- The column is added on the partitioned parent and is propagated to every partition.
+
+ALTER TABLE orders ADD COLUMN status VARCHAR(32) NOT NULL DEFAULT 'PAID';
+ALTER TABLE orders ALTER COLUMN status SET DEFAULT 'PENDING_PAYMENT';
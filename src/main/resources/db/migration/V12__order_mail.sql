@@ -0,0 +1,15 @@
+-- Order confirmation mail: recipient address of the customer (optional, customers without it get no mail)
+-- and the dead-letter store for confirmations that could not be delivered after all outbox attempts.
+-- A dead letter keeps the rendered message, so it can be inspected and resent as is.
+
+ALTER TABLE customers ADD COLUMN email VARCHAR(255);
+
+CREATE TABLE mail_dead_letters (
+                                   id BIGSERIAL PRIMARY KEY,
+                                   order_id BIGINT,
+                                   recipient VARCHAR(255) NOT NULL,
+                                   subject TEXT NOT NULL,
+                                   body TEXT NOT NULL,
+                                   error TEXT,
+                                   created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,62 @@
+-- create_order_partitions failed once the default partition already held rows of the month being created
+-- (backdated imports, clock skew): PostgreSQL refuses to add a partition whose range overlaps rows in DEFAULT.
+-- In that case both default partitions are detached, the new monthly partitions are created, the matching rows
+-- are moved over and the defaults are attached back. Re-attaching validates the default range and the
+-- order_items foreign key again, so the tables end up with the same constraints as before.
+
+CREATE OR REPLACE FUNCTION create_order_partitions(from_month date, months int) RETURNS int
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start date;
+    month_end   date;
+    suffix      text;
+    created     int := 0;
+    stranded    boolean;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('order_partitions'));
+
+    FOR i IN 0 .. months - 1
+        LOOP
+            month_start := date_trunc('month', from_month)::date + make_interval(months => i);
+            month_end := month_start + interval '1 month';
+            suffix := to_char(month_start, 'YYYYMM');
+
+            IF to_regclass('orders_p' || suffix) IS NULL THEN
+                SELECT EXISTS (SELECT 1 FROM orders_default WHERE created_at >= month_start AND created_at < month_end)
+                    INTO stranded;
+
+                IF stranded THEN
+                    -- Items go first: their foreign key would otherwise block detaching the orders default
+                    ALTER TABLE order_items DETACH PARTITION order_items_default;
+                    ALTER TABLE order_items_default DROP CONSTRAINT IF EXISTS fk_order_items_order;
+                    ALTER TABLE orders DETACH PARTITION orders_default;
+                END IF;
+
+                EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                               'orders_p' || suffix, month_start, month_end);
+                EXECUTE format('CREATE TABLE %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                               'order_items_p' || suffix, month_start, month_end);
+
+                IF stranded THEN
+                    INSERT INTO orders
+                    SELECT * FROM orders_default WHERE created_at >= month_start AND created_at < month_end;
+                    INSERT INTO order_items
+                    SELECT * FROM order_items_default
+                    WHERE order_created_at >= month_start AND order_created_at < month_end;
+
+                    DELETE FROM order_items_default
+                    WHERE order_created_at >= month_start AND order_created_at < month_end;
+                    DELETE FROM orders_default WHERE created_at >= month_start AND created_at < month_end;
+
+                    ALTER TABLE orders ATTACH PARTITION orders_default DEFAULT;
+                    ALTER TABLE order_items ATTACH PARTITION order_items_default DEFAULT;
+                END IF;
+
+                created := created + 1;
+            END IF;
+        END LOOP;
+
+    RETURN created;
+END;
+$$;
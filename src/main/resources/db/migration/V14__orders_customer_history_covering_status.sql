@@ -0,0 +1,8 @@
+-- Customer order history also selects status (V11) and version (V9): without them in INCLUDE every row of a page
+-- is fetched from the heap and the index-only scan planned in V3 is lost.
+-- The index is rebuilt on the partitioned parent, which recreates it on every partition.
+DROP INDEX idx_orders_customer_created_at_id;
+
+CREATE INDEX idx_orders_customer_created_at_id
+    ON orders (customer_id, created_at DESC, id DESC)
+    INCLUDE (amount, employee_id, status, version);
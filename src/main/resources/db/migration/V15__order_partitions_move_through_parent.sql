@@ -0,0 +1,68 @@
+-- V13 moved stranded rows by inserting them through the parents and deleting them from the detached defaults.
+-- Detached defaults carry no capture triggers, so the inserts added sales deltas with no matching negative
+-- deltas and every month split out of DEFAULT was counted twice in the rollups.
+-- Now the rows are deleted through the parents while the defaults stay attached and are inserted back once the
+-- monthly partitions exist: the triggers write a negative and a positive delta for every row, which cancel out.
+-- Without the detach the foreign key and the default range stay validated throughout.
+
+CREATE OR REPLACE FUNCTION create_order_partitions(from_month date, months int) RETURNS int
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start date;
+    month_end   date;
+    suffix      text;
+    created     int := 0;
+    stranded    boolean;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('order_partitions'));
+
+    FOR i IN 0 .. months - 1
+        LOOP
+            month_start := date_trunc('month', from_month)::date + make_interval(months => i);
+            month_end := month_start + interval '1 month';
+            suffix := to_char(month_start, 'YYYYMM');
+
+            IF to_regclass('orders_p' || suffix) IS NULL THEN
+                SELECT EXISTS (SELECT 1 FROM orders_default WHERE created_at >= month_start AND created_at < month_end)
+                    INTO stranded;
+
+                IF stranded THEN
+                    CREATE TEMP TABLE IF NOT EXISTS stranded_orders (LIKE orders) ON COMMIT DROP;
+                    CREATE TEMP TABLE IF NOT EXISTS stranded_order_items (LIKE order_items) ON COMMIT DROP;
+
+                    -- Items go first: the cascade from orders would otherwise delete them before they are saved
+                    WITH moved AS (
+                        DELETE FROM order_items
+                        WHERE order_created_at >= month_start AND order_created_at < month_end
+                        RETURNING *
+                    )
+                    INSERT INTO stranded_order_items SELECT * FROM moved;
+
+                    WITH moved AS (
+                        DELETE FROM orders
+                        WHERE created_at >= month_start AND created_at < month_end
+                        RETURNING *
+                    )
+                    INSERT INTO stranded_orders SELECT * FROM moved;
+                END IF;
+
+                EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                               'orders_p' || suffix, month_start, month_end);
+                EXECUTE format('CREATE TABLE %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                               'order_items_p' || suffix, month_start, month_end);
+
+                IF stranded THEN
+                    INSERT INTO orders SELECT * FROM stranded_orders;
+                    INSERT INTO order_items SELECT * FROM stranded_order_items;
+
+                    TRUNCATE stranded_orders, stranded_order_items;
+                END IF;
+
+                created := created + 1;
+            END IF;
+        END LOOP;
+
+    RETURN created;
+END;
+$$;
@@ -0,0 +1,6 @@
+-- V8 gave every product 16 empty shards, so once checkout started taking stock every order failed with 409
+-- until stock was set for each product. Stock is now enforced only for products whose stock has been set:
+-- PUT /api/products/{id}/stock marks the product as tracked, untracked products are sold without a stock check.
+-- Rollout: existing products stay untracked, set stock per product to turn enforcement on.
+
+ALTER TABLE products ADD COLUMN stock_tracked BOOLEAN NOT NULL DEFAULT false;
@@ -0,0 +1,8 @@
+-- Hibernate pooled optimizer reserves allocationSize ids per sequence call,
+-- the increment must match allocationSize in the entities.
+ALTER SEQUENCE departments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE employees_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
@@ -0,0 +1,8 @@
+-- Order history of a customer is paged by (created_at DESC, id DESC).
+-- The index serves both the seek and the sort, INCLUDE columns make it covering for an index-only scan.
+CREATE INDEX idx_orders_customer_created_at_id
+    ON orders (customer_id, created_at DESC, id DESC)
+    INCLUDE (amount, employee_id);
+
+-- Prefix of the new index, no longer needed
+DROP INDEX idx_orders_customer_id;
@@ -0,0 +1,137 @@
+-- Orders and their items are range-partitioned by month of the order creation time.
+-- The partition key has to be part of every unique constraint, so the primary keys become (id, created_at)
+-- and order_items carries order_created_at to reference the order and to be partitioned the same way.
+
+ALTER TABLE orders RENAME TO orders_legacy;
+ALTER TABLE order_items RENAME TO order_items_legacy;
+ALTER SEQUENCE orders_id_seq OWNED BY NONE;
+ALTER SEQUENCE order_items_id_seq OWNED BY NONE;
+
+CREATE TABLE orders (
+                        id BIGINT NOT NULL DEFAULT nextval('orders_id_seq'),
+                        created_at timestamp NOT NULL,
+                        updated_at timestamp NOT NULL,
+                        amount BIGINT NOT NULL,
+                        employee_id BIGINT REFERENCES employees(id) ON DELETE SET NULL,
+                        customer_id BIGINT REFERENCES customers(id) ON DELETE SET NULL,
+                        PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+                             id BIGINT NOT NULL DEFAULT nextval('order_items_id_seq'),
+                             order_id BIGINT NOT NULL,
+                             order_created_at timestamp NOT NULL,
+                             product_id BIGINT REFERENCES products(id) ON DELETE SET NULL,
+                             quantity BIGINT NOT NULL CHECK (quantity > 0),
+                             PRIMARY KEY (id, order_created_at),
+                             CONSTRAINT fk_order_items_order FOREIGN KEY (order_id, order_created_at)
+                                 REFERENCES orders(id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (order_created_at);
+
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+ALTER SEQUENCE order_items_id_seq OWNED BY order_items.id;
+
+-- Rows outside of the created partitions (backdated imports, clock skew) land here instead of failing
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- Indexes on the parents are created on every partition, including the ones added later
+CREATE INDEX idx_orders_created_at_id ON orders (created_at, id);
+CREATE INDEX idx_orders_customer_created_at_id ON orders (customer_id, created_at DESC, id DESC) INCLUDE (amount, employee_id);
+CREATE INDEX idx_orders_employee_id ON orders (employee_id);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id, order_created_at);
+CREATE INDEX idx_order_items_product_id ON order_items (product_id);
+
+-- Creates monthly partitions of both tables for [from_month, from_month + months); returns the number created.
+-- Idempotent and serialized by an advisory lock, so several application instances may call it concurrently.
+CREATE FUNCTION create_order_partitions(from_month date, months int) RETURNS int
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start date;
+    suffix      text;
+    created     int := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('order_partitions'));
+
+    FOR i IN 0 .. months - 1
+        LOOP
+            month_start := date_trunc('month', from_month)::date + make_interval(months => i);
+            suffix := to_char(month_start, 'YYYYMM');
+
+            IF to_regclass('orders_p' || suffix) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                               'orders_p' || suffix, month_start, month_start + interval '1 month');
+                EXECUTE format('CREATE TABLE %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                               'order_items_p' || suffix, month_start, month_start + interval '1 month');
+                created := created + 1;
+            END IF;
+        END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+-- Detaches monthly partitions that end before before_month and moves them to archive_schema,
+-- where they can be dumped and dropped without touching the live tables; returns the number archived.
+CREATE FUNCTION archive_order_partitions(before_month date, archive_schema text) RETURNS int
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    part      record;
+    archived  int := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('order_partitions'));
+    EXECUTE format('CREATE SCHEMA IF NOT EXISTS %I', archive_schema);
+
+    FOR part IN
+        SELECT substring(c.relname FROM '^orders_p(\d{6})$') AS suffix
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'orders'::regclass
+          AND c.relname ~ '^orders_p\d{6}$'
+          AND to_date(substring(c.relname FROM '^orders_p(\d{6})$'), 'YYYYMM') + interval '1 month' <= before_month
+        ORDER BY 1
+        LOOP
+            -- Items go first: the foreign key to the orders partition is dropped once items are detached
+            EXECUTE format('ALTER TABLE order_items DETACH PARTITION %I', 'order_items_p' || part.suffix);
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS fk_order_items_order',
+                           'order_items_p' || part.suffix);
+            EXECUTE format('ALTER TABLE orders DETACH PARTITION %I', 'orders_p' || part.suffix);
+
+            EXECUTE format('ALTER TABLE %I SET SCHEMA %I', 'order_items_p' || part.suffix, archive_schema);
+            EXECUTE format('ALTER TABLE %I SET SCHEMA %I', 'orders_p' || part.suffix, archive_schema);
+            archived := archived + 1;
+        END LOOP;
+
+    RETURN archived;
+END;
+$$;
+
+-- Partitions for the existing history, the current month and three months ahead, then the data is moved over
+DO
+$$
+DECLARE
+    first_month date := date_trunc('month', least((SELECT min(created_at) FROM orders_legacy), now()));
+    history     interval := age(date_trunc('month', now()), first_month);
+BEGIN
+    PERFORM create_order_partitions(first_month,
+                                    (extract(YEAR FROM history) * 12 + extract(MONTH FROM history))::int + 4);
+END;
+$$;
+
+INSERT INTO orders (id, created_at, updated_at, amount, employee_id, customer_id)
+SELECT id, created_at, updated_at, amount, employee_id, customer_id
+FROM orders_legacy;
+
+-- Items without an order were unreachable through the API and are not carried over
+INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity)
+SELECT i.id, i.order_id, o.created_at, i.product_id, i.quantity
+FROM order_items_legacy i
+         JOIN orders_legacy o ON o.id = i.order_id;
+
+DROP TABLE order_items_legacy;
+DROP TABLE orders_legacy;
+
+ANALYZE orders;
+ANALYZE order_items;
@@ -0,0 +1,113 @@
+-- Sales rollups for the analytics endpoints.
+-- Triggers append signed deltas to insert-only tables in the writing transaction, so concurrent orders
+-- never contend on a shared rollup row; a scheduled job folds the deltas into the rollups.
+-- Reads combine rollup and pending deltas and are exact at any moment.
+
+CREATE TABLE sales_daily (
+                             day DATE PRIMARY KEY,
+                             orders BIGINT NOT NULL,
+                             revenue BIGINT NOT NULL
+);
+
+CREATE TABLE sales_by_employee (
+                                   employee_id BIGINT PRIMARY KEY,
+                                   orders BIGINT NOT NULL,
+                                   revenue BIGINT NOT NULL
+);
+
+-- Revenue of a product is quantity x current price, computed when read
+CREATE TABLE sales_by_product (
+                                  product_id BIGINT PRIMARY KEY,
+                                  quantity BIGINT NOT NULL
+);
+
+CREATE TABLE order_sales_deltas (
+                                    day DATE NOT NULL,
+                                    employee_id BIGINT,
+                                    orders BIGINT NOT NULL,
+                                    revenue BIGINT NOT NULL
+);
+
+CREATE TABLE product_sales_deltas (
+                                      product_id BIGINT NOT NULL,
+                                      quantity BIGINT NOT NULL
+);
+
+CREATE INDEX idx_order_sales_deltas_day ON order_sales_deltas (day);
+
+CREATE FUNCTION capture_order_sales() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.amount = NEW.amount
+        AND OLD.created_at::date = NEW.created_at::date
+        AND OLD.employee_id IS NOT DISTINCT FROM NEW.employee_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO order_sales_deltas (day, employee_id, orders, revenue)
+        VALUES (OLD.created_at::date, OLD.employee_id, -1, -OLD.amount);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO order_sales_deltas (day, employee_id, orders, revenue)
+        VALUES (NEW.created_at::date, NEW.employee_id, 1, NEW.amount);
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION capture_product_sales() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.quantity = NEW.quantity
+        AND OLD.product_id IS NOT DISTINCT FROM NEW.product_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.product_id IS NOT NULL THEN
+        INSERT INTO product_sales_deltas (product_id, quantity) VALUES (OLD.product_id, -OLD.quantity);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.product_id IS NOT NULL THEN
+        INSERT INTO product_sales_deltas (product_id, quantity) VALUES (NEW.product_id, NEW.quantity);
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+-- Triggers on the partitioned parents apply to every partition; detaching an old partition
+-- fires no delete, so archived months stay in the totals
+CREATE TRIGGER trg_orders_sales
+    AFTER INSERT OR DELETE OR UPDATE OF amount, created_at, employee_id
+    ON orders
+    FOR EACH ROW
+EXECUTE FUNCTION capture_order_sales();
+
+CREATE TRIGGER trg_order_items_sales
+    AFTER INSERT OR DELETE OR UPDATE OF quantity, product_id
+    ON order_items
+    FOR EACH ROW
+EXECUTE FUNCTION capture_product_sales();
+
+-- Initial totals for the existing history
+INSERT INTO sales_daily (day, orders, revenue)
+SELECT created_at::date, count(*), sum(amount)
+FROM orders
+GROUP BY created_at::date;
+
+INSERT INTO sales_by_employee (employee_id, orders, revenue)
+SELECT employee_id, count(*), sum(amount)
+FROM orders
+WHERE employee_id IS NOT NULL
+GROUP BY employee_id;
+
+INSERT INTO sales_by_product (product_id, quantity)
+SELECT product_id, sum(quantity)
+FROM order_items
+WHERE product_id IS NOT NULL
+GROUP BY product_id;
@@ -0,0 +1,13 @@
+-- Full-text search over product names: a stored tsvector kept up to date by PostgreSQL itself.
+-- The 'simple' configuration does no stemming, so names in any language are matched word by word.
+ALTER TABLE products
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, ''))) STORED;
+
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
+
+-- Autocomplete: trigram GiST index serves prefix LIKE, typo-tolerant word similarity
+-- and nearest-first ordering (KNN) without sorting all matches
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING GIST (lower(name) gist_trgm_ops);
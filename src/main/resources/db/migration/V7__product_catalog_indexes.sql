@@ -0,0 +1,4 @@
+-- Catalog listing sorted by price or name: keyset pages seek into these indexes
+-- in both directions, the price range filter narrows the same (price, id) index
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_name_id ON products (name, id);
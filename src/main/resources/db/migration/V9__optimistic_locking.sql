@@ -0,0 +1,10 @@
+-- Version columns for optimistic locking (JPA @Version).
+-- A constant default is stored in the catalog, so existing rows are not rewritten.
+-- Order items carry no version of their own: they are written only through their order,
+-- and any change to the item collection bumps the order version.
+
+ALTER TABLE departments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employees ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -1,7 +1,10 @@
 package com.onlineshop.test.controller;
 
+import com.onlineshop.test.configuration.HttpCacheProperties;
 import com.onlineshop.test.dto.response.DepartmentResponse;
+import com.onlineshop.test.dto.response.PageResponse;
 import com.onlineshop.test.exception.DepartmentNotFoundException;
+import com.onlineshop.test.exception.VersionMismatchException;
 import com.onlineshop.test.service.DepartmentService;
 import jakarta.validation.constraints.NotNull;
 import org.junit.jupiter.api.DisplayName;
@@ -10,7 +13,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,15 +23,25 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 // Integration tests
 @WebMvcTest(DepartmentController.class)
+@EnableConfigurationProperties(HttpCacheProperties.class)
 public class DepartmentControllerTest {
 
+    private static final String DEPARTMENT_JSON = """
+            {"name": "Department_01", "location": "loc 01"}
+            """;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -36,37 +51,55 @@ public class DepartmentControllerTest {
     @Test
     @DisplayName("Test getAllDepartments - Validation happy flow")
     void getAllDepartments_ShouldReturnListOfDepartments() throws Exception {
-        var department1 = new DepartmentResponse(1L, "Department_01", "loc 01");
-        var department2 = new DepartmentResponse(2L, "Department_02", "loc 02");
+        var department1 = new DepartmentResponse(1L, "Department_01", "loc 01", 0L);
+        var department2 = new DepartmentResponse(2L, "Department_02", "loc 02", 0L);
 
-        when(departmentService.getAllDepartments()).thenReturn(List.of(department1, department2));
+        when(departmentService.getAllDepartments(null, null)).thenReturn(new PageResponse<>(List.of(department1, department2), null));
 
         mockMvc.perform(get("/api/departments")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$.content", hasSize(2)));
 
-        Mockito.verify(departmentService, Mockito.times(1)).getAllDepartments();
+        Mockito.verify(departmentService, Mockito.times(1)).getAllDepartments(null, null);
     }
 
     @Test
     @DisplayName("Test getAllDepartments - Validation empty list")
     void getAllDepartments_ShouldReturnEmptyListWhenNoDepartmentsExist() throws Exception {
-        when(departmentService.getAllDepartments()).thenReturn(List.of());
+        when(departmentService.getAllDepartments(null, null)).thenReturn(new PageResponse<>(List.of(), null));
+
+        mockMvc.perform(get("/api/departments")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+
+        Mockito.verify(departmentService, Mockito.times(1)).getAllDepartments(null, null);
+    }
+
+    @Test
+    @DisplayName("Test getAllDepartments - Validation next cursor")
+    void getAllDepartments_ShouldPassCursorAndReturnNextCursor() throws Exception {
+        var department = new DepartmentResponse(11L, "Department_11", "loc 11", 0L);
+
+        when(departmentService.getAllDepartments("10", 1)).thenReturn(new PageResponse<>(List.of(department), "11"));
 
         mockMvc.perform(get("/api/departments")
+                        .param("cursor", "10")
+                        .param("size", "1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.next").value("11"));
 
-        Mockito.verify(departmentService, Mockito.times(1)).getAllDepartments();
+        Mockito.verify(departmentService, Mockito.times(1)).getAllDepartments("10", 1);
     }
 
     @Test
     @DisplayName("Test getDepartmentById - Validation happy flow")
     void getDepartmentById_ShouldReturnDepartment_WhenDepartmentExists() throws Exception {
         var departmentId = 1L;
-        var departmentResponse = new DepartmentResponse(departmentId, "Department_01", "loc 01");
+        var departmentResponse = new DepartmentResponse(departmentId, "Department_01", "loc 01", 0L);
 
         when(departmentService.getDepartmentById(departmentId)).thenReturn(departmentResponse);
 
@@ -78,6 +111,63 @@ public class DepartmentControllerTest {
         Mockito.verify(departmentService, Mockito.times(1)).getDepartmentById(departmentId);
     }
 
+    @Test
+    @DisplayName("Test getDepartmentById - Validation ETag and Cache-Control")
+    void getDepartmentById_ShouldReturnVersionETagAndCacheControl() throws Exception {
+        var departmentResponse = new DepartmentResponse(1L, "Department_01", "loc 01", 3L);
+
+        when(departmentService.getDepartmentById(1L)).thenReturn(departmentResponse);
+
+        mockMvc.perform(get("/api/departments/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"));
+    }
+
+    @Test
+    @DisplayName("Test getDepartmentById - Validation not modified")
+    void getDepartmentById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        var departmentResponse = new DepartmentResponse(1L, "Department_01", "loc 01", 3L);
+
+        when(departmentService.getDepartmentById(1L)).thenReturn(departmentResponse);
+
+        mockMvc.perform(get("/api/departments/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"3\"", "3"})
+    @DisplayName("Test updateDepartment - Validation strong If-Match")
+    void updateDepartment_ShouldPassVersionFromStrongIfMatch(String ifMatch) throws Exception {
+        when(departmentService.updateDepartment(eq(1L), any(), eq(3L)))
+                .thenReturn(new DepartmentResponse(1L, "Department_01", "loc 01", 4L));
+
+        mockMvc.perform(put("/api/departments/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, ifMatch)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(DEPARTMENT_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("Test updateDepartment - Validation weak If-Match never matches")
+    void updateDepartment_ShouldReturnPreconditionFailed_WhenIfMatchIsWeak() throws Exception {
+        // Слабый тег передаётся как версия, которой не бывает, и проверка версии в сервисе его отклоняет
+        when(departmentService.updateDepartment(eq(1L), any(), eq(-1L)))
+                .thenThrow(new VersionMismatchException(1L, -1L, 3L));
+
+        mockMvc.perform(put("/api/departments/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(DEPARTMENT_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(departmentService, Mockito.never()).updateDepartment(eq(1L), any(), eq(3L));
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {1, 2})
     @DisplayName("Test getDepartmentById - Validation dep not found")
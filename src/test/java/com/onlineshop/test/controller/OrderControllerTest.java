@@ -0,0 +1,140 @@
+package com.onlineshop.test.controller;
+
+import com.onlineshop.test.configuration.HttpCacheProperties;
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.dto.response.ResourceVersion;
+import com.onlineshop.test.entity.OrderStatus;
+import com.onlineshop.test.exception.OrderAmountOverflowException;
+import com.onlineshop.test.service.OrderExportService;
+import com.onlineshop.test.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Integration tests
+@WebMvcTest(OrderController.class)
+@EnableConfigurationProperties(HttpCacheProperties.class)
+public class OrderControllerTest {
+
+    private static final Long ID = 1L;
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private static final long LAST_MODIFIED = UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    public void setUp() {
+        when(orderService.getOrderVersion(ID)).thenReturn(new ResourceVersion(3L, UPDATED_AT));
+        when(orderService.getOrderById(ID)).thenReturn(new OrderResponse(ID, 1000L, "John", "Anna",
+                UPDATED_AT, OrderStatus.PAID, 3L));
+    }
+
+    @Test
+    void getOrderById_ShouldReturnOrderWithValidators() throws Exception {
+        // Заказы не кэшируются в общих кэшах и перепроверяются на каждом запросе (http-cache.controllers.orders)
+        mockMvc.perform(get("/api/orders/{id}", ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(ID))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    void getOrderById_ShouldReturnNotModifiedWithoutBody_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/orders/{id}", ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+
+        // 304 отдаётся по одной версии, без чтения заказа
+        verify(orderService, never()).getOrderById(ID);
+    }
+
+    @Test
+    void getOrderById_ShouldReturnOrder_WhenETagIsStale() throws Exception {
+        mockMvc.perform(get("/api/orders/{id}", ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(3))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void getOrderById_ShouldReturnNotModified_WhenNotModifiedSince() throws Exception {
+        var headers = new HttpHeaders();
+        headers.setIfModifiedSince(LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/orders/{id}", ID).headers(headers))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getOrderById_ShouldIgnoreIfModifiedSince_WhenIfNoneMatchIsPresent() throws Exception {
+        // If-Modified-Since сам по себе дал бы 304, но при If-None-Match решает только ETag
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"2\"");
+        headers.setIfModifiedSince(LAST_MODIFIED);
+
+        mockMvc.perform(get("/api/orders/{id}", ID).headers(headers))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(ID));
+    }
+
+    @Test
+    void createOrder_ShouldReturnBadRequest_WhenAmountOverflows() throws Exception {
+        when(orderService.createOrder(any())).thenThrow(new OrderAmountOverflowException());
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson(1_000_000L)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Сумма заказа превышает допустимое значение"));
+    }
+
+    @Test
+    void createOrder_ShouldRejectQuantityAboveLimit() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson(1_000_001L)))
+                .andExpect(status().isBadRequest());
+
+        verify(orderService, never()).createOrder(any());
+    }
+
+    private static String orderJson(long quantity) {
+        return """
+                {"customerId": 1, "employeeId": 2, "items": [{"productId": 3, "quantity": %d}]}
+                """.formatted(quantity);
+    }
+}
@@ -0,0 +1,28 @@
+package com.onlineshop.test.load;
+
+// Эндпоинты, которые участвуют в нагрузочных сценариях
+enum Endpoint {
+
+    LIST_PRODUCTS("GET /api/products"),
+    GET_PRODUCT("GET /api/products/{id}"),
+    LIST_CUSTOMERS("GET /api/customers"),
+    GET_CUSTOMER("GET /api/customers/{id}"),
+    CREATE_CUSTOMER("POST /api/customers"),
+    LIST_EMPLOYEES("GET /api/employees"),
+    GET_EMPLOYEE("GET /api/employees/{id}"),
+    LIST_DEPARTMENTS("GET /api/departments"),
+    GET_DEPARTMENT("GET /api/departments/{id}"),
+    LIST_ORDERS("GET /api/orders"),
+    GET_ORDER("GET /api/orders/{id}"),
+    CHECKOUT("POST /api/orders");
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+}
@@ -0,0 +1,75 @@
+package com.onlineshop.test.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Сбор задержек по эндпоинтам и расчёт перцентилей
+final class LatencyRecorder {
+
+    private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+
+    LatencyRecorder() {
+        for (var endpoint : Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+    }
+
+    void record(Endpoint endpoint, long nanos, boolean success) {
+        samples.get(endpoint).add(nanos, success);
+    }
+
+    List<LoadReport.EndpointReport> report(Duration duration) {
+        return samples.entrySet().stream()
+                .filter(entry -> entry.getValue().size() > 0)
+                .map(entry -> entry.getValue().report(entry.getKey(), duration))
+                .toList();
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized LoadReport.EndpointReport report(Endpoint endpoint, Duration duration) {
+            var sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+
+            return new LoadReport.EndpointReport(
+                    endpoint.label(),
+                    size,
+                    errors,
+                    size / (duration.toMillis() / 1000.0),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(percentile(sorted, 0.999)),
+                    millis(sorted[sorted.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            var index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.onlineshop.test.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.restassured.http.ContentType.JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Нагрузочный прогон: ./gradlew loadTest -Dload.workload=CHECKOUT_HEAVY -Dload.concurrency=200 -Dload.duration=60
+// Режим обработки запросов: -Dload.virtual-threads=true
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+class LoadE2ETest {
+
+    private static final Workload WORKLOAD = Workload.valueOf(System.getProperty("load.workload", "MIXED"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("load.virtual-threads");
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 30));
+    private static final Path REPORT = Path.of(System.getProperty("load.report",
+            "build/reports/load/" + WORKLOAD.name().toLowerCase() + ".json"));
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort()
+                + "/" + postgres.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+        registry.add("spring.threads.virtual.enabled", () -> VIRTUAL_THREADS);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    HttpClient client;
+    LoadData data;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.port = port;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        data = LoadData.seed(jdbcTemplate);
+    }
+
+    @Test
+    void runWorkload_ShouldReportLatencyPercentilesPerEndpoint() throws Exception {
+        // Проверка сценария через RestAssured: каждый эндпоинт смеси отвечает успешно
+        for (var endpoint : WORKLOAD.endpoints()) {
+            var request = data.request(endpoint, ThreadLocalRandom.current());
+            var specification = RestAssured.given().contentType(JSON);
+            if (request.body() != null) {
+                specification.body(request.body());
+            }
+
+            specification.when()
+                    .request(request.method(), request.path())
+                    .then()
+                    .statusCode(200);
+        }
+
+        run(WARMUP, new LatencyRecorder());
+
+        var recorder = new LatencyRecorder();
+        run(DURATION, recorder);
+
+        var report = new LoadReport(WORKLOAD.name(), CONCURRENCY, DURATION.toSeconds(), VIRTUAL_THREADS,
+                recorder.report(DURATION));
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+
+        assertThat(report.endpoints()).isNotEmpty()
+                .allSatisfy(endpoint -> assertThat(endpoint.errors())
+                        .as(endpoint.endpoint())
+                        .isLessThanOrEqualTo(endpoint.requests() / 100));
+    }
+
+    // CONCURRENCY клиентов без пауз, каждый на своём виртуальном потоке
+    private void run(Duration duration, LatencyRecorder recorder) {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var baseUri = "http://localhost:" + port;
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        var endpoint = WORKLOAD.next(random);
+                        var request = data.request(endpoint, random).toHttpRequest(baseUri);
+                        var start = System.nanoTime();
+                        try {
+                            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+                        } catch (IOException ex) {
+                            recorder.record(endpoint, System.nanoTime() - start, false);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    // Идентификаторы засеянных данных для построения запросов
+    record LoadData(List<Long> productIds, List<Long> customerIds, List<Long> employeeIds,
+                    List<Long> departmentIds, List<Long> orderIds) {
+
+        static LoadData seed(JdbcTemplate jdbc) {
+            if (jdbc.queryForObject("SELECT count(*) FROM products", Long.class) == 0) {
+                jdbc.update("INSERT INTO departments (name, location) SELECT 'Department ' || g, 'Tashkent' FROM generate_series(1, 20) g");
+                jdbc.update("""
+                        INSERT INTO employees (name, position, salary, department_id)
+                        SELECT 'Employee ' || g, 'Manager', 1000, d.id
+                        FROM departments d, generate_series(1, 10) g
+                        """);
+                jdbc.update("INSERT INTO products (name, price) SELECT 'Product ' || g, 10 + g % 100 FROM generate_series(1, 10000) g");
+                jdbc.update("UPDATE product_stock SET quantity = 1000000");
+                jdbc.update("INSERT INTO customers (name, city) SELECT 'Customer ' || g, 'Tashkent' FROM generate_series(1, 10000) g");
+                jdbc.update("""
+                        INSERT INTO orders (created_at, updated_at, amount, customer_id, employee_id)
+                        SELECT now() - g * interval '1 minute', now(), 100, c.id, (SELECT min(id) FROM employees)
+                        FROM customers c, generate_series(1, 5) g
+                        """);
+                jdbc.update("ANALYZE");
+            }
+
+            return new LoadData(
+                    ids(jdbc, "products"),
+                    ids(jdbc, "customers"),
+                    ids(jdbc, "employees"),
+                    ids(jdbc, "departments"),
+                    ids(jdbc, "orders"));
+        }
+
+        private static List<Long> ids(JdbcTemplate jdbc, String table) {
+            return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id LIMIT 10000", Long.class);
+        }
+
+        LoadRequest request(Endpoint endpoint, ThreadLocalRandom random) {
+            return switch (endpoint) {
+                case LIST_PRODUCTS -> LoadRequest.get("/api/products?size=50");
+                case GET_PRODUCT -> LoadRequest.get("/api/products/" + pick(productIds, random));
+                case LIST_CUSTOMERS -> LoadRequest.get("/api/customers?size=50");
+                case GET_CUSTOMER -> LoadRequest.get("/api/customers/" + pick(customerIds, random));
+                case CREATE_CUSTOMER -> LoadRequest.post("/api/customers",
+                        "{\"name\": \"Load customer\", \"city\": \"Tashkent\"}");
+                case LIST_EMPLOYEES -> LoadRequest.get("/api/employees?size=50");
+                case GET_EMPLOYEE -> LoadRequest.get("/api/employees/" + pick(employeeIds, random));
+                case LIST_DEPARTMENTS -> LoadRequest.get("/api/departments?size=50");
+                case GET_DEPARTMENT -> LoadRequest.get("/api/departments/" + pick(departmentIds, random));
+                case LIST_ORDERS -> LoadRequest.get("/api/orders?size=50");
+                case GET_ORDER -> LoadRequest.get("/api/orders/" + pick(orderIds, random));
+                case CHECKOUT -> LoadRequest.post("/api/orders", """
+                        {"customerId": %d, "employeeId": %d, "items": [
+                            {"productId": %d, "quantity": 1},
+                            {"productId": %d, "quantity": 2},
+                            {"productId": %d, "quantity": 3}
+                        ]}
+                        """.formatted(pick(customerIds, random), pick(employeeIds, random),
+                        pick(productIds, random), pick(productIds, random), pick(productIds, random)));
+            };
+        }
+
+        private static long pick(List<Long> ids, ThreadLocalRandom random) {
+            return ids.get(random.nextInt(ids.size()));
+        }
+    }
+
+    record LoadRequest(String method, String path, String body) {
+
+        static LoadRequest get(String path) {
+            return new LoadRequest("GET", path, null);
+        }
+
+        static LoadRequest post(String path, String body) {
+            return new LoadRequest("POST", path, body);
+        }
+
+        HttpRequest toHttpRequest(String baseUri) {
+            var builder = HttpRequest.newBuilder(URI.create(baseUri + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+            return body == null
+                    ? builder.GET().build()
+                    : builder.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    }
+}
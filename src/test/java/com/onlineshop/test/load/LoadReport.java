@@ -0,0 +1,24 @@
+package com.onlineshop.test.load;
+
+import java.util.List;
+
+// Машиночитаемый отчёт нагрузочного прогона
+record LoadReport(
+        String workload,
+        int concurrency,
+        long durationSeconds,
+        boolean virtualThreads,
+        List<EndpointReport> endpoints
+) {
+
+    record EndpointReport(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs
+    ) {}
+}
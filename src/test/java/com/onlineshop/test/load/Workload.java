@@ -0,0 +1,96 @@
+package com.onlineshop.test.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.onlineshop.test.load.Endpoint.CHECKOUT;
+import static com.onlineshop.test.load.Endpoint.CREATE_CUSTOMER;
+import static com.onlineshop.test.load.Endpoint.GET_CUSTOMER;
+import static com.onlineshop.test.load.Endpoint.GET_DEPARTMENT;
+import static com.onlineshop.test.load.Endpoint.GET_EMPLOYEE;
+import static com.onlineshop.test.load.Endpoint.GET_ORDER;
+import static com.onlineshop.test.load.Endpoint.GET_PRODUCT;
+import static com.onlineshop.test.load.Endpoint.LIST_CUSTOMERS;
+import static com.onlineshop.test.load.Endpoint.LIST_DEPARTMENTS;
+import static com.onlineshop.test.load.Endpoint.LIST_EMPLOYEES;
+import static com.onlineshop.test.load.Endpoint.LIST_ORDERS;
+import static com.onlineshop.test.load.Endpoint.LIST_PRODUCTS;
+
+// Смесь запросов с весами: -Dload.workload=CHECKOUT_HEAVY | CATALOG_BROWSE | ORDERS_AND_PRODUCTS | MIXED
+enum Workload {
+
+    CHECKOUT_HEAVY(weights(
+            CHECKOUT, 40,
+            GET_PRODUCT, 25,
+            LIST_PRODUCTS, 10,
+            GET_ORDER, 10,
+            GET_CUSTOMER, 10,
+            CREATE_CUSTOMER, 5)),
+
+    CATALOG_BROWSE(weights(
+            LIST_PRODUCTS, 40,
+            GET_PRODUCT, 40,
+            LIST_DEPARTMENTS, 5,
+            GET_DEPARTMENT, 5,
+            LIST_CUSTOMERS, 5,
+            CHECKOUT, 5)),
+
+    ORDERS_AND_PRODUCTS(weights(
+            LIST_ORDERS, 20,
+            GET_ORDER, 25,
+            LIST_PRODUCTS, 20,
+            GET_PRODUCT, 25,
+            CHECKOUT, 10)),
+
+    MIXED(weights(
+            LIST_PRODUCTS, 10,
+            GET_PRODUCT, 15,
+            LIST_CUSTOMERS, 5,
+            GET_CUSTOMER, 10,
+            CREATE_CUSTOMER, 5,
+            LIST_EMPLOYEES, 5,
+            GET_EMPLOYEE, 10,
+            LIST_DEPARTMENTS, 5,
+            GET_DEPARTMENT, 5,
+            LIST_ORDERS, 5,
+            GET_ORDER, 10,
+            CHECKOUT, 15));
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    Workload(Map<Endpoint, Integer> weights) {
+        this.endpoints = weights.keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+
+        var total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Endpoint next(ThreadLocalRandom random) {
+        var value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+
+        return endpoints[endpoints.length - 1];
+    }
+
+    Endpoint[] endpoints() {
+        return endpoints.clone();
+    }
+
+    private static Map<Endpoint, Integer> weights(Object... pairs) {
+        var weights = new LinkedHashMap<Endpoint, Integer>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            weights.put((Endpoint) pairs[i], (Integer) pairs[i + 1]);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,94 @@
+package com.onlineshop.test.repository;
+
+import com.onlineshop.test.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Integration tests
+@DataJpaTest
+@Testcontainers
+class EmployeeRepositoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Employee ceo;
+    private Employee head;
+    private Employee lead;
+    private Employee developer;
+
+    // ceo -> head -> lead -> developer, ceo -> sales
+    @BeforeEach
+    public void setUp() {
+        ceo = employee("CEO", 1000L, null);
+        head = employee("Head", 500L, ceo);
+        employee("Sales", 300L, ceo);
+        lead = employee("Lead", 200L, head);
+        developer = employee("Developer", 100L, lead);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findSubtree_ShouldReturnAllReportsInDepthFirstOrder() {
+        var subtree = employeeRepository.findSubtree(ceo.getId());
+
+        assertThat(subtree).extracting(EmployeeRepository.HierarchyNode::getName)
+                .containsExactly("Head", "Lead", "Developer", "Sales");
+        assertThat(subtree).extracting(EmployeeRepository.HierarchyNode::getDepth)
+                .containsExactly(1, 2, 3, 1);
+    }
+
+    @Test
+    void findDirectReports_ShouldReturnOnlyFirstLevel() {
+        assertThat(employeeRepository.findDirectReports(ceo.getId()))
+                .extracting(EmployeeRepository.HierarchyNode::getName)
+                .containsExactly("Head", "Sales");
+    }
+
+    @Test
+    void findManagementChain_ShouldWalkUpToRoot() {
+        assertThat(employeeRepository.findManagementChain(developer.getId()))
+                .extracting(EmployeeRepository.HierarchyNode::getId)
+                .containsExactly(lead.getId(), head.getId(), ceo.getId());
+    }
+
+    @Test
+    void findSubtreePayroll_ShouldIncludeManagerAndAllReports() {
+        var payroll = employeeRepository.findSubtreePayroll(head.getId());
+
+        assertThat(payroll.getEmployees()).isEqualTo(3L);
+        assertThat(payroll.getPayroll()).isEqualTo(800L);
+    }
+
+    private Employee employee(String name, Long salary, Employee manager) {
+        var employee = new Employee();
+        employee.setName(name);
+        employee.setSalary(salary);
+        employee.setManager(manager);
+        return entityManager.persist(employee);
+    }
+}
@@ -0,0 +1,391 @@
+package com.onlineshop.test.repository;
+
+import com.onlineshop.test.configuration.PaginationProperties;
+import com.onlineshop.test.configuration.SecondLevelCacheConfiguration;
+import com.onlineshop.test.entity.Customer;
+import com.onlineshop.test.entity.Department;
+import com.onlineshop.test.entity.Employee;
+import com.onlineshop.test.entity.Order;
+import com.onlineshop.test.entity.OrderItem;
+import com.onlineshop.test.entity.Product;
+import com.onlineshop.test.service.SalesAnalyticsService;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Integration tests
+@DataJpaTest
+@Testcontainers
+@Import({SecondLevelCacheConfiguration.class, SalesAnalyticsService.class, SalesAnalyticsRepository.class,
+        OrderRepositoryTest.SqlCapture.class})
+@EnableConfigurationProperties(PaginationProperties.class)
+class OrderRepositoryTest {
+
+    private static final int ORDERS = 5;
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        var department = new Department();
+        department.setName("Sales");
+        entityManager.persist(department);
+
+        // У каждого заказа свои клиент и сотрудник, чтобы N+1 был виден в статистике
+        for (int i = 0; i < ORDERS; i++) {
+            var employee = new Employee();
+            employee.setName("Employee " + i);
+            employee.setDepartment(department);
+            entityManager.persist(employee);
+
+            var customer = new Customer();
+            customer.setName("Customer " + i);
+            entityManager.persist(customer);
+
+            var order = new Order();
+            order.setAmount(100L + i);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setUpdatedAt(LocalDateTime.now());
+            order.setEmployee(employee);
+            order.setCustomer(customer);
+            entityManager.persist(order);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findResponsesAfter_ShouldLoadPageInSingleStatement() {
+        var page = orderRepository.findResponsesAfter(EARLIEST, 0L, Limit.of(ORDERS));
+
+        assertThat(page).hasSize(ORDERS)
+                .allSatisfy(order -> {
+                    assertThat(order.customerName()).startsWith("Customer");
+                    assertThat(order.employeeName()).startsWith("Employee");
+                });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findResponseById_ShouldLoadOrderInSingleStatement() {
+        var orderId = orderRepository.findResponsesAfter(EARLIEST, 0L, Limit.of(1)).get(0).id();
+        statistics.clear();
+
+        assertThat(orderRepository.findResponseById(orderId)).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAll_ShouldIssueSelectsPerEagerAssociation() {
+        orderRepository.findAll();
+
+        // Прежний путь чтения: отдельные запросы за клиентом и сотрудником каждого заказа
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(ORDERS);
+    }
+
+    @Test
+    void findById_ShouldServeEagerAssociationsFromSecondLevelCache() {
+        var orderId = orderRepository.findResponsesAfter(EARLIEST, 0L, Limit.of(1)).get(0).id();
+
+        statistics.clear();
+        orderRepository.findById(orderId);
+        var coldStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        // Повторное чтение: из базы берётся только сам заказ, клиент, сотрудник и департамент - из кэша
+        statistics.clear();
+        orderRepository.findById(orderId);
+
+        assertThat(coldStatements).isGreaterThan(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void findCustomerHistory_ShouldSeekByCreatedAtAndIdDescending() {
+        var customer = new Customer();
+        customer.setName("Regular");
+        entityManager.persist(customer);
+
+        // Два заказа с одинаковым временем: порядок между ними определяет id
+        var createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        var times = new LocalDateTime[] {createdAt.minusDays(1), createdAt, createdAt, createdAt.plusDays(1)};
+        for (var time : times) {
+            var order = new Order();
+            order.setAmount(100L);
+            order.setCreatedAt(time);
+            order.setUpdatedAt(time);
+            order.setCustomer(customer);
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        var all = orderRepository.findCustomerHistory(customer.getId(),
+                LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE, Limit.of(10));
+        var afterSecond = orderRepository.findCustomerHistory(customer.getId(),
+                all.get(1).createdAt(), all.get(1).id(), Limit.of(10));
+
+        assertThat(all).extracting(order -> order.createdAt())
+                .containsExactly(times[3], times[2], times[1], times[0]);
+        assertThat(all.get(1).id()).isGreaterThan(all.get(2).id());
+        assertThat(afterSecond).extracting(order -> order.id())
+                .containsExactly(all.get(2).id(), all.get(3).id());
+    }
+
+    @Test
+    void save_ShouldRouteOrderAndItemsToMonthlyPartition() {
+        var product = new Product();
+        product.setName("Mouse");
+        product.setPrice(20L);
+        entityManager.persist(product);
+
+        var order = new Order();
+        order.setAmount(20L);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.getItems().add(new OrderItem(null, order, order.getCreatedAt(), product, 1L));
+        orderRepository.save(order);
+        entityManager.flush();
+
+        var partition = "orders_p" + order.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyyMM"));
+        assertThat(entityManager.getEntityManager()
+                .createNativeQuery("select tableoid::regclass::text from orders where id = :id")
+                .setParameter("id", order.getId())
+                .getSingleResult())
+                .isEqualTo(partition);
+        assertThat(entityManager.getEntityManager()
+                .createNativeQuery("select tableoid::regclass::text from order_items where order_id = :id")
+                .setParameter("id", order.getId())
+                .getSingleResult())
+                .isEqualTo(partition.replace("orders_", "order_items_"));
+    }
+
+    @Test
+    void saveAll_ShouldBatchOrderAndItemInserts() {
+        var product = new Product();
+        product.setName("Keyboard");
+        product.setPrice(50L);
+        entityManager.persistAndFlush(product);
+        statistics.clear();
+
+        var orders = new ArrayList<Order>();
+        for (int i = 0; i < 20; i++) {
+            var order = new Order();
+            order.setAmount(100L);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setUpdatedAt(LocalDateTime.now());
+            order.getItems().add(new OrderItem(null, order, order.getCreatedAt(), product, 1L));
+            order.getItems().add(new OrderItem(null, order, order.getCreatedAt(), product, 1L));
+            orders.add(order);
+        }
+
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+
+        // С IDENTITY здесь было бы 60 отдельных INSERT, с пулом последовательностей - пара вызовов nextval и пакеты
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(60);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void findResponsesAfter_ShouldPrunePartitionsBeforeCursor() {
+        var currentMonth = LocalDate.now().withDayOfMonth(1);
+        var cursor = currentMonth.plusMonths(1).atStartOfDay();
+
+        // Тот же предикат, что в findResponsesAfter: диапазон по created_at рядом со сравнением кортежей
+        var plan = explain("""
+                SELECT o.id FROM orders o
+                WHERE o.created_at >= '%s' AND (o.created_at, o.id) > ('%s', 0)
+                ORDER BY o.created_at, o.id LIMIT 50
+                """.formatted(cursor, cursor));
+
+        assertThat(plan)
+                .doesNotContain(partition(currentMonth))
+                .contains(partition(currentMonth.plusMonths(1)));
+    }
+
+    @Test
+    void findCustomerHistory_ShouldPrunePartitionsAfterCursor() {
+        var currentMonth = LocalDate.now().withDayOfMonth(1);
+        var cursor = currentMonth.atStartOfDay();
+
+        var plan = explain("""
+                SELECT o.id FROM orders o
+                WHERE o.customer_id = 1 AND o.created_at <= '%s' AND (o.created_at, o.id) < ('%s', 9223372036854775807)
+                ORDER BY o.created_at DESC, o.id DESC LIMIT 50
+                """.formatted(cursor, cursor));
+
+        assertThat(plan)
+                .contains(partition(currentMonth))
+                .doesNotContain(partition(currentMonth.plusMonths(1)));
+    }
+
+    @Test
+    void findCustomerHistory_ShouldUseIndexOnlyScan() {
+        // На маленькой таблице планировщик выбрал бы полный просмотр; здесь проверяется только, что индекс покрывает
+        // все столбцы заказа из findCustomerHistory и чтение обходится без обращения к строкам таблицы
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+
+        // План строится по SQL, который Hibernate сгенерировал для запроса, а не по его копии
+        var cursor = LocalDateTime.of(2100, 1, 1, 0, 0);
+        sqlCapture.statements.clear();
+        orderRepository.findCustomerHistory(1L, cursor, Long.MAX_VALUE, Limit.of(50));
+        var sql = sqlCapture.statements.getLast();
+
+        // Параметры в порядке запроса: клиент, граница секций, курсор (created_at, id), размер страницы
+        var plan = explainPrepared(sql, "1", "'" + cursor + "'", "'" + cursor + "'", String.valueOf(Long.MAX_VALUE), "50");
+
+        assertThat(plan.lines().filter(line -> line.contains(" on orders_")).toList())
+                .isNotEmpty()
+                .allSatisfy(line -> assertThat(line).contains("Index Only Scan"));
+    }
+
+    @Test
+    void createOrderPartitions_ShouldMoveRowsOutOfDefaultPartition() {
+        var employeeId = jdbcTemplate.queryForObject("SELECT min(id) FROM employees", Long.class);
+        var productId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (name, price) VALUES ('Monitor', 300) RETURNING id", Long.class);
+        var orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO orders (created_at, updated_at, amount, employee_id)
+                VALUES ('2100-01-15 10:00', '2100-01-15 10:00', 600, ?)
+                RETURNING id
+                """, Long.class, employeeId);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (order_id, order_created_at, product_id, quantity)
+                VALUES (?, '2100-01-15 10:00', ?, 2)
+                """, orderId, productId);
+
+        var day = LocalDate.of(2100, 1, 15);
+        var dailyRevenue = salesAnalyticsService.getDailyRevenue(day, day);
+        var employeeRevenue = salesAnalyticsService.getEmployeeRevenue();
+        var topProducts = salesAnalyticsService.getTopProducts(null);
+
+        // Секции на январь 2100 ещё нет: строки лежат в секции по умолчанию и не мешают её созданию
+        var created = jdbcTemplate.queryForObject("SELECT create_order_partitions('2100-01-01', 1)", Integer.class);
+
+        assertThat(created).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM orders WHERE id = ?",
+                String.class, orderId))
+                .isEqualTo("orders_p210001");
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM order_items WHERE order_id = ?",
+                String.class, orderId))
+                .isEqualTo("order_items_p210001");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_inherits
+                WHERE inhrelid IN ('orders_default'::regclass, 'order_items_default'::regclass)
+                """, Integer.class))
+                .isEqualTo(2);
+
+        // Перенос строк не меняет итоги: удаление и вставка через родителя дают дельты, которые гасят друг друга
+        assertThat(salesAnalyticsService.getDailyRevenue(day, day)).isEqualTo(dailyRevenue).isNotEmpty();
+        assertThat(salesAnalyticsService.getEmployeeRevenue()).isEqualTo(employeeRevenue);
+        assertThat(salesAnalyticsService.getTopProducts(null)).isEqualTo(topProducts);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    // Параметры JDBC (?) заменяются на $1..$n, чтобы план можно было получить через PREPARE
+    private String explainPrepared(String sql, String... parameters) {
+        var numbered = new StringBuilder();
+        var index = 0;
+        for (var part : sql.split("\\?", -1)) {
+            if (index > 0) {
+                numbered.append('$').append(index);
+            }
+            numbered.append(part);
+            index++;
+        }
+        assertThat(index - 1).as("parameters of %s", sql).isEqualTo(parameters.length);
+
+        jdbcTemplate.execute("PREPARE captured AS " + numbered);
+        try {
+            return explain("EXECUTE captured(" + String.join(", ", parameters) + ")");
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE captured");
+        }
+    }
+
+    private static String partition(LocalDate month) {
+        return "orders_p" + month.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+
+    // Запоминает SQL, который Hibernate отправляет в базу
+    @TestConfiguration
+    static class SqlCapture {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.onlineshop.test.repository;
+
+import com.onlineshop.test.dto.request.ProductFilter;
+import com.onlineshop.test.dto.request.ProductSort;
+import com.onlineshop.test.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Integration tests
+@DataJpaTest
+@Testcontainers
+class ProductRepositoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        product("Wireless keyboard", 50L);
+        product("Keyboard keyboard cover", 10L);
+        product("Gaming mouse", 30L);
+        product("Monitor stand", 20L);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void search_ShouldRankMatchesAndPageByRankAndId() {
+        var firstPage = productRepository.search("keyboard", Float.POSITIVE_INFINITY, 0L, 100, 1);
+        var secondPage = productRepository.search("keyboard",
+                firstPage.get(0).getRank(), firstPage.get(0).getId(), 100, 10);
+
+        // Двойное вхождение слова ранжируется выше
+        assertThat(firstPage).extracting(ProductRepository.SearchHit::getName)
+                .containsExactly("Keyboard keyboard cover");
+        assertThat(secondPage).extracting(ProductRepository.SearchHit::getName)
+                .containsExactly("Wireless keyboard");
+    }
+
+    @Test
+    void search_ShouldRankOnlyFirstCandidatesById() {
+        product("Keyboard tray", 15L);
+        entityManager.flush();
+
+        // Совпадений три, кандидатов меньше: ранжируются первые по id, лучший по рангу "Keyboard keyboard cover"
+        // при одном кандидате за отсечку не проходит
+        var oneCandidate = productRepository.search("keyboard", Float.POSITIVE_INFINITY, 0L, 1, 10);
+        var twoCandidates = productRepository.search("keyboard", Float.POSITIVE_INFINITY, 0L, 2, 10);
+
+        assertThat(oneCandidate).extracting(ProductRepository.SearchHit::getName)
+                .containsExactly("Wireless keyboard");
+        assertThat(twoCandidates).extracting(ProductRepository.SearchHit::getName)
+                .containsExactly("Keyboard keyboard cover", "Wireless keyboard");
+    }
+
+    @Test
+    void autocomplete_ShouldMatchPrefixAndTypos() {
+        assertThat(productRepository.autocomplete("gam", "gam%", 10))
+                .extracting(Product::getName)
+                .containsExactly("Gaming mouse");
+        assertThat(productRepository.autocomplete("monitr", "monitr%", 10))
+                .extracting(Product::getName)
+                .contains("Monitor stand");
+    }
+
+    @Test
+    void findBy_ShouldFilterByPriceAndSeekAfterCursor() {
+        var filter = ProductSpecifications.matches(new ProductFilter(15L, 60L));
+        var sort = ProductSort.PRICE_DESC;
+
+        var firstPage = productRepository.findBy(filter,
+                query -> query.sortBy(sort.sort()).limit(2).all());
+        var last = firstPage.get(1);
+        var secondPage = productRepository.findBy(
+                filter.and(ProductSpecifications.after("price", last.getPrice(), last.getId(), true)),
+                query -> query.sortBy(sort.sort()).limit(2).all());
+
+        assertThat(firstPage).extracting(Product::getPrice).containsExactly(50L, 30L);
+        assertThat(secondPage).extracting(Product::getPrice).containsExactly(20L);
+    }
+
+    @Test
+    void save_ShouldRejectStaleVersion() {
+        var id = productRepository.findAll().get(0).getId();
+        entityManager.clear();
+
+        // Два писателя прочитали одну и ту же версию продукта
+        var first = productRepository.findById(id).orElseThrow();
+        entityManager.clear();
+        var second = productRepository.findById(id).orElseThrow();
+        entityManager.clear();
+
+        first.setPrice(35L);
+        assertThat(productRepository.saveAndFlush(first).getVersion()).isEqualTo(1L);
+
+        second.setPrice(40L);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productRepository.saveAndFlush(second));
+    }
+
+    private void product(String name, Long price) {
+        var product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        entityManager.persist(product);
+    }
+}
@@ -0,0 +1,98 @@
+package com.onlineshop.test.repository;
+
+import com.onlineshop.test.dto.response.DailyRevenueResponse;
+import com.onlineshop.test.dto.response.DepartmentRevenueResponse;
+import com.onlineshop.test.dto.response.EmployeeRevenueResponse;
+import com.onlineshop.test.dto.response.ProductRevenueResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Integration tests
+@DataJpaTest
+@Testcontainers
+@Import(SalesAnalyticsRepository.class)
+class SalesAnalyticsRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SalesAnalyticsRepository salesAnalyticsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long employeeId;
+    private long productId;
+
+    @BeforeEach
+    public void setUp() {
+        var departmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO departments (name) VALUES ('Sales') RETURNING id", Long.class);
+        employeeId = jdbcTemplate.queryForObject(
+                "INSERT INTO employees (name, department_id) VALUES ('Alice', ?) RETURNING id", Long.class, departmentId);
+        productId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (name, price) VALUES ('Keyboard', 50) RETURNING id", Long.class);
+
+        // Два заказа по 2 и 3 клавиатуры и один удалённый заказ, который не должен попасть в итоги
+        insertOrder(2);
+        insertOrder(3);
+        var deleted = insertOrder(4);
+        jdbcTemplate.update("DELETE FROM orders WHERE id = ?", deleted);
+    }
+
+    @Test
+    void rollups_ShouldMatchOrdersBeforeAndAfterFold() {
+        var daily = new DailyRevenueResponse(DAY, 2L, 250L);
+        var product = new ProductRevenueResponse(productId, "Keyboard", 5L, 250L);
+        var employee = new EmployeeRevenueResponse(employeeId, "Alice", 2L, 250L);
+
+        assertThat(salesAnalyticsRepository.findDailyRevenue(DAY, DAY)).containsExactly(daily);
+        assertThat(salesAnalyticsRepository.findTopProducts(10)).containsExactly(product);
+        assertThat(salesAnalyticsRepository.findEmployeeRevenue()).containsExactly(employee);
+
+        salesAnalyticsRepository.foldDeltas();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM order_sales_deltas", Long.class)).isZero();
+        assertThat(salesAnalyticsRepository.findDailyRevenue(DAY, DAY)).containsExactly(daily);
+        assertThat(salesAnalyticsRepository.findTopProducts(10)).containsExactly(product);
+        assertThat(salesAnalyticsRepository.findEmployeeRevenue()).containsExactly(employee);
+        assertThat(salesAnalyticsRepository.findDepartmentRevenue())
+                .extracting(DepartmentRevenueResponse::revenue)
+                .containsExactly(250L);
+    }
+
+    private long insertOrder(long quantity) {
+        var orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO orders (created_at, updated_at, amount, employee_id)
+                VALUES (?, ?, ?, ?) RETURNING id
+                """, Long.class, DAY.atTime(12, 0), DAY.atTime(12, 0), quantity * 50, employeeId);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (order_id, order_created_at, product_id, quantity)
+                VALUES (?, ?, ?, ?)
+                """, orderId, DAY.atTime(12, 0), productId, quantity);
+        return orderId;
+    }
+}
@@ -0,0 +1,157 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.ImportProperties;
+import com.onlineshop.test.dto.request.ProductRequest;
+import com.onlineshop.test.dto.response.ImportError;
+import com.onlineshop.test.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Integration tests
+@DataJpaTest(properties = "import.chunk-size=3")
+@Testcontainers
+@Import(BulkImportService.class)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@EnableConfigurationProperties(ImportProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkImportServiceTest {
+
+    // Длиннее products.name VARCHAR(100): проверки запроса пропускают, база отклоняет
+    private static final String TOO_LONG_NAME = "x".repeat(101);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void importJson_ShouldImportValidRowsAndReportRejectedOnes() {
+        var body = """
+                [
+                  {"name": "Keyboard", "price": 50},
+                  {"name": "", "price": 10},
+                  {"name": "Mouse", "price": "cheap"},
+                  {"name": "%s", "price": 20},
+                  {"name": "Monitor", "price": 300}
+                ]
+                """.formatted(TOO_LONG_NAME);
+
+        var report = bulkImportService.importJson(stream(body), ProductRequest.class, BulkImportServiceTest::toEntity);
+
+        // Нарушение ограничения базы откатывает пачку, но соседние строки пачки всё равно сохраняются
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.errors()).extracting(ImportError::row).containsExactly(2L, 3L, 4L);
+        assertThat(report.errors().get(2).message()).startsWith("Строка не сохранена");
+        assertThat(names()).containsExactlyInAnyOrder("Keyboard", "Monitor");
+    }
+
+    @Test
+    void importCsv_ShouldImportValidRowsAndReportRejectedOnes() {
+        var body = """
+                name,price
+                "Keyboard, wireless",50
+                Mouse,cheap
+
+                Headset
+                %s,20
+                "Monitor ""27""\",300
+                """.formatted(TOO_LONG_NAME);
+
+        var report = bulkImportService.importCsv(stream(body), BulkImportServiceTest::parseCsv,
+                BulkImportServiceTest::toEntity);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.errors()).extracting(ImportError::row).containsExactly(2L, 4L, 5L);
+        assertThat(names()).containsExactlyInAnyOrder("Keyboard, wireless", "Monitor \"27\"");
+    }
+
+    @Test
+    void importJson_ShouldImportPayloadLargerThanOneChunk() {
+        var body = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> "{\"name\": \"Product %d\", \"price\": %d}".formatted(i, i))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        var report = bulkImportService.importJson(stream(body), ProductRequest.class, BulkImportServiceTest::toEntity);
+
+        assertThat(report.imported()).isEqualTo(10);
+        assertThat(report.failed()).isZero();
+        assertThat(names()).hasSize(10);
+    }
+
+    @Test
+    void importCsv_ShouldImportPayloadLargerThanOneChunk() {
+        var body = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> "Product %d,%d".formatted(i, i))
+                .collect(Collectors.joining("\n", "name,price\n", "\n"));
+
+        var report = bulkImportService.importCsv(stream(body), BulkImportServiceTest::parseCsv,
+                BulkImportServiceTest::toEntity);
+
+        assertThat(report.imported()).isEqualTo(10);
+        assertThat(report.failed()).isZero();
+        assertThat(names()).hasSize(10);
+    }
+
+    private List<String> names() {
+        return jdbcTemplate.queryForList("SELECT name FROM products", String.class);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductRequest parseCsv(List<String> values) {
+        var request = new ProductRequest();
+        request.setName(values.get(0));
+        request.setPrice(Long.valueOf(values.get(1)));
+        return request;
+    }
+
+    private static Product toEntity(ProductRequest request) {
+        var product = new Product();
+        product.setName(request.getName());
+        product.setPrice(request.getPrice());
+        return product;
+    }
+}
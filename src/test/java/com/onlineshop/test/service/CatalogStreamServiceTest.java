@@ -0,0 +1,129 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.dto.response.CustomerResponse;
+import com.onlineshop.test.dto.response.ProductResponse;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Integration tests: схема создаётся Flyway через JDBC, поток читается через R2DBC из того же контейнера
+@DataJpaTest
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogStreamServiceTest {
+
+    // Больше размера порции FETCH_SIZE, чтобы поток шёл несколькими порциями
+    private static final int PRODUCTS = 600;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogStreamService catalogStreamService;
+
+    @BeforeEach
+    public void setUp() {
+        var connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "postgresql")
+                .option(ConnectionFactoryOptions.HOST, postgres.getHost())
+                .option(ConnectionFactoryOptions.PORT, postgres.getFirstMappedPort())
+                .option(ConnectionFactoryOptions.DATABASE, postgres.getDatabaseName())
+                .option(ConnectionFactoryOptions.USER, postgres.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, postgres.getPassword())
+                .build());
+        catalogStreamService = new CatalogStreamService(DatabaseClient.create(connectionFactory));
+
+        jdbcTemplate.update("""
+                INSERT INTO products (name, price)
+                SELECT 'Product ' || i, i FROM generate_series(1, ?) AS i
+                """, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO customers (name, city, email)
+                VALUES ('John', 'New York', 'john@example.com'), ('Jane', 'Boston', NULL)
+                """);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM customers");
+    }
+
+    @Test
+    void streamProducts_ShouldStreamAllRowsAfterCursorInIdOrder() {
+        var firstId = jdbcTemplate.queryForObject("SELECT min(id) FROM products", Long.class);
+
+        var products = catalogStreamService.streamProducts(String.valueOf(firstId), null)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(products).hasSize(PRODUCTS - 1);
+        assertThat(products).extracting(ProductResponse::id).isSorted().doesNotContain(firstId);
+        assertThat(products.get(0)).satisfies(product -> {
+            assertThat(product.name()).isEqualTo("Product 2");
+            assertThat(product.price()).isEqualTo(2L);
+            assertThat(product.version()).isNotNull();
+        });
+    }
+
+    @Test
+    void streamProducts_ShouldRespectLimit() {
+        StepVerifier.create(catalogStreamService.streamProducts(null, 5))
+                .expectNextCount(5)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamCustomers_ShouldMapAllColumns() {
+        StepVerifier.create(catalogStreamService.streamCustomers(null, null))
+                .assertNext(customer -> assertThat(customer)
+                        .extracting(CustomerResponse::name, CustomerResponse::city, CustomerResponse::email)
+                        .containsExactly("John", "New York", "john@example.com"))
+                .assertNext(customer -> assertThat(customer.email()).isNull())
+                .verifyComplete();
+    }
+
+    @Test
+    void streamProducts_ShouldEmitOnlyOnDemandAndStopOnCancel() {
+        // Без спроса подписчика строки не отдаются, после отмены поток больше ничего не отдаёт
+        StepVerifier.create(catalogStreamService.streamProducts(null, null), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify(Duration.ofSeconds(30));
+
+        StepVerifier.create(catalogStreamService.streamProducts(null, 1))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+}
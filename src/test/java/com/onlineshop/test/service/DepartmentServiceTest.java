@@ -48,7 +48,7 @@ class DepartmentServiceTest {
         var departmentId = 1L;
 
         var departmentEntity = new Department();
-        var departmentResponse = new DepartmentResponse(1L, "Department_01", "loc 01");
+        var departmentResponse = new DepartmentResponse(1L, "Department_01", "loc 01", 0L);
 
         when(departmentRepository.findById(departmentId))
                 .thenReturn(Optional.of(departmentEntity));
@@ -0,0 +1,177 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.EmployeeHierarchyProperties;
+import com.onlineshop.test.dto.response.EmployeeNodeResponse;
+import com.onlineshop.test.entity.Employee;
+import com.onlineshop.test.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Integration tests: индекс в памяти должен отвечать так же, как рекурсивные запросы EmployeeRepository
+@DataJpaTest(properties = "employee-hierarchy.index-enabled=true")
+@Testcontainers
+@Import(EmployeeHierarchyIndex.class)
+@EnableConfigurationProperties(EmployeeHierarchyProperties.class)
+class EmployeeHierarchyIndexTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private EmployeeHierarchyIndex employeeHierarchyIndex;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Employee ceo;
+    private Employee head;
+    private Employee lead;
+    private Employee developer;
+
+    // ceo -> head -> lead -> developer, ceo -> sales, head -> analyst
+    @BeforeEach
+    public void setUp() {
+        employeeHierarchyIndex.invalidate();
+
+        ceo = employee("CEO", 1000L, null);
+        head = employee("Head", 500L, ceo);
+        employee("Sales", 300L, ceo);
+        lead = employee("Lead", 200L, head);
+        employee("Analyst", null, head);
+        developer = employee("Developer", 100L, lead);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void subtree_ShouldMatchRecursiveQuery() {
+        for (var employee : List.of(ceo, head, lead, developer)) {
+            assertThat(employeeHierarchyIndex.subtree(employee.getId()))
+                    .contains(toNodes(employeeRepository.findSubtree(employee.getId())));
+        }
+    }
+
+    @Test
+    void directReports_ShouldMatchRecursiveQuery() {
+        for (var employee : List.of(ceo, head, lead, developer)) {
+            assertThat(employeeHierarchyIndex.directReports(employee.getId()))
+                    .contains(toNodes(employeeRepository.findDirectReports(employee.getId())));
+        }
+    }
+
+    @Test
+    void managementChain_ShouldMatchRecursiveQuery() {
+        for (var employee : List.of(ceo, head, lead, developer)) {
+            assertThat(employeeHierarchyIndex.managementChain(employee.getId()))
+                    .contains(toNodes(employeeRepository.findManagementChain(employee.getId())));
+        }
+    }
+
+    @Test
+    void payroll_ShouldMatchRecursiveQuery() {
+        for (var employee : List.of(ceo, head, lead, developer)) {
+            var expected = employeeRepository.findSubtreePayroll(employee.getId());
+
+            assertThat(employeeHierarchyIndex.payroll(employee.getId())).hasValueSatisfying(payroll -> {
+                assertThat(payroll.employees()).isEqualTo(expected.getEmployees());
+                assertThat(payroll.payroll()).isEqualTo(expected.getPayroll());
+            });
+        }
+    }
+
+    @Test
+    void subtree_ShouldBeEmptyForUnknownEmployee() {
+        assertThat(employeeHierarchyIndex.subtree(Long.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void invalidate_ShouldReloadHierarchyAfterEmployeeChange() {
+        assertThat(employeeHierarchyIndex.directReports(developer.getId())).contains(List.of());
+
+        var intern = employee("Intern", 50L, entityManager.find(Employee.class, developer.getId()));
+        entityManager.flush();
+
+        // До сброса индекс отдаёт снимок, построенный до изменения (TTL ещё не истёк)
+        assertThat(employeeHierarchyIndex.directReports(developer.getId())).contains(List.of());
+
+        employeeHierarchyIndex.invalidate();
+
+        assertThat(employeeHierarchyIndex.directReports(developer.getId())).hasValueSatisfying(reports ->
+                assertThat(reports).extracting(EmployeeNodeResponse::id).containsExactly(intern.getId()));
+    }
+
+    @Test
+    void subtree_ShouldLoadSnapshotOnceForConcurrentCallers() throws Exception {
+        var repository = mock(EmployeeRepository.class);
+        var release = new CountDownLatch(1);
+        when(repository.findAllNodes()).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        var index = new EmployeeHierarchyIndex(repository, new EmployeeHierarchyProperties(true, Duration.ofMinutes(5)));
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var calls = new ArrayList<Future<?>>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(executor.submit(() -> index.subtree(1L)));
+            }
+
+            // Все вызовы успевают дойти до построения снимка, пока первый из них держит загрузку
+            Thread.sleep(200);
+            release.countDown();
+            for (var call : calls) {
+                call.get();
+            }
+        }
+
+        verify(repository, times(1)).findAllNodes();
+    }
+
+    private static List<EmployeeNodeResponse> toNodes(List<EmployeeRepository.HierarchyNode> nodes) {
+        return nodes.stream()
+                .map(node -> new EmployeeNodeResponse(node.getId(), node.getName(), node.getPosition(),
+                        node.getSalary(), node.getManagerId(), node.getDepth()))
+                .toList();
+    }
+
+    private Employee employee(String name, Long salary, Employee manager) {
+        var employee = new Employee();
+        employee.setName(name);
+        employee.setSalary(salary);
+        employee.setManager(manager);
+        return entityManager.persist(employee);
+    }
+}
@@ -0,0 +1,164 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.CacheConfiguration;
+import com.onlineshop.test.configuration.EntityCacheProperties;
+import com.onlineshop.test.configuration.PaginationProperties;
+import com.onlineshop.test.configuration.ProductSearchProperties;
+import com.onlineshop.test.dto.request.DepartmentRequest;
+import com.onlineshop.test.dto.request.ProductRequest;
+import com.onlineshop.test.dto.response.DepartmentResponse;
+import com.onlineshop.test.dto.response.ProductResponse;
+import com.onlineshop.test.entity.Department;
+import com.onlineshop.test.entity.Product;
+import com.onlineshop.test.mapper.DepartmentMapper;
+import com.onlineshop.test.mapper.ProductMapper;
+import com.onlineshop.test.repository.DepartmentRepository;
+import com.onlineshop.test.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Integration tests: кэш поверх настоящих сервисов, обращения к базе считаются на подменённых репозиториях
+@SpringJUnitConfig({CacheConfiguration.class, ProductService.class, DepartmentService.class})
+@EnableConfigurationProperties({EntityCacheProperties.class, PaginationProperties.class, ProductSearchProperties.class})
+@TestPropertySource(properties = {
+        "entity-cache.caches.products.enabled=true",
+        "entity-cache.caches.departments.enabled=true"
+})
+class EntityCacheTest {
+
+    private static final Long ID = 1L;
+
+    @MockitoBean
+    ProductRepository productRepository;
+    @MockitoBean
+    ProductMapper productMapper;
+    @MockitoBean
+    DepartmentRepository departmentRepository;
+    @MockitoBean
+    DepartmentMapper departmentMapper;
+    @MockitoBean
+    BulkImportService bulkImportService;
+    @MockitoBean
+    OptimisticRetry optimisticRetry;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        var product = new Product();
+        when(productRepository.findById(ID)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(new ProductResponse(ID, "Keyboard", 50L, 0L));
+
+        var department = new Department();
+        when(departmentRepository.findById(ID)).thenReturn(Optional.of(department));
+        when(departmentMapper.toResponse(department)).thenReturn(new DepartmentResponse(ID, "Sales", "Boston", 0L));
+
+        // Само изменение здесь не важно, важна только аннотация @CacheEvict на методе сервиса
+        when(optimisticRetry.execute(anyBoolean(), any())).thenReturn(null);
+    }
+
+    @Test
+    void getProductById_ShouldServeRepeatedReadFromCache() {
+        var first = productService.getProductById(ID);
+        var second = productService.getProductById(ID);
+
+        assertThat(second).isEqualTo(first);
+        verify(productRepository, times(1)).findById(ID);
+    }
+
+    @Test
+    void updateProduct_ShouldEvictCachedProduct() {
+        productService.getProductById(ID);
+
+        productService.updateProduct(ID, new ProductRequest(), null);
+        productService.getProductById(ID);
+
+        verify(productRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    void deleteProduct_ShouldEvictCachedProduct() {
+        productService.getProductById(ID);
+
+        productService.deleteProduct(ID);
+        productService.getProductById(ID);
+
+        // Один findById внутри deleteProduct и два чтения мимо кэша
+        verify(productRepository, times(3)).findById(ID);
+    }
+
+    @Test
+    void getDepartmentById_ShouldServeRepeatedReadFromCache() {
+        departmentService.getDepartmentById(ID);
+        departmentService.getDepartmentById(ID);
+
+        verify(departmentRepository, times(1)).findById(ID);
+    }
+
+    @Test
+    void updateDepartment_ShouldEvictCachedDepartment() {
+        departmentService.getDepartmentById(ID);
+
+        departmentService.updateDepartment(ID, new DepartmentRequest(), null);
+        departmentService.getDepartmentById(ID);
+
+        verify(departmentRepository, times(2)).findById(ID);
+    }
+
+    @Test
+    void deleteDepartment_ShouldEvictCachedDepartment() {
+        departmentService.getDepartmentById(ID);
+
+        departmentService.deleteDepartment(ID);
+        departmentService.getDepartmentById(ID);
+
+        verify(departmentRepository, times(3)).findById(ID);
+    }
+
+    // Выключенный кэш заменяется no-op: каждое чтение идёт в репозиторий, соседний кэш продолжает работать
+    @Nested
+    @TestPropertySource(properties = "entity-cache.caches.products.enabled=false")
+    class ProductsCacheDisabled {
+
+        @Test
+        void getProductById_ShouldReadRepositoryEveryTime() {
+            productService.getProductById(ID);
+            productService.getProductById(ID);
+
+            verify(productRepository, times(2)).findById(ID);
+        }
+
+        @Test
+        void getDepartmentById_ShouldStillBeCached() {
+            departmentService.getDepartmentById(ID);
+            departmentService.getDepartmentById(ID);
+
+            verify(departmentRepository, times(1)).findById(ID);
+        }
+    }
+}
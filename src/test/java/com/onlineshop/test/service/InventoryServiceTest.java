@@ -0,0 +1,192 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.InventoryProperties;
+import com.onlineshop.test.dto.request.OrderItemRequest;
+import com.onlineshop.test.dto.request.ReservationRequest;
+import com.onlineshop.test.dto.request.StockRequest;
+import com.onlineshop.test.exception.InsufficientStockException;
+import com.onlineshop.test.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Integration tests
+@DataJpaTest
+@Testcontainers
+@Import({InventoryService.class, InventoryRepository.class})
+@EnableConfigurationProperties(InventoryProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceTest {
+
+    private static final int THREADS = 16;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+
+    @BeforeEach
+    public void setUp() {
+        productId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (name, price) VALUES ('Console', 500) RETURNING id", Long.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+    }
+
+    @Test
+    void reserve_ShouldNeverOversellHotProduct() throws Exception {
+        setStock(200);
+
+        // Спрос в шесть раз больше остатка: 16 потоков одновременно резервируют по одной единице
+        var reserved = new AtomicInteger();
+        var rejected = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            tasks.add(() -> {
+                start.await();
+                for (int attempt = 0; attempt < 75; attempt++) {
+                    try {
+                        inventoryService.reserve(request(1L));
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            var futures = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(reserved.get()).isEqualTo(200);
+        assertThat(rejected.get()).isEqualTo(THREADS * 75 - 200);
+        assertThat(inventoryService.getStock(productId).available()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(quantity), 0) FROM stock_reservations WHERE product_id = ?", Long.class, productId))
+                .isEqualTo(200L);
+    }
+
+    @Test
+    void reserve_ShouldCollectQuantityAcrossShards() {
+        // По одной единице в каждом из 16 шардов: ни один шард не покрывает 10 единиц
+        setStock(16);
+
+        inventoryService.reserve(request(10L));
+
+        assertThat(inventoryService.getStock(productId).available()).isEqualTo(6L);
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve(request(7L)));
+        assertThat(inventoryService.getStock(productId).available()).isEqualTo(6L);
+    }
+
+    @Test
+    void releaseExpired_ShouldReturnStockToShards() {
+        setStock(50);
+        var reservation = inventoryService.reserve(request(20L));
+        inventoryService.reserve(request(5L));
+
+        inventoryService.release(reservation.id());
+        assertThat(inventoryService.getStock(productId).available()).isEqualTo(45L);
+
+        var released = inventoryRepository.releaseExpired(LocalDateTime.now().plusDays(1), 1000);
+
+        assertThat(released).isEqualTo(1L);
+        assertThat(inventoryService.getStock(productId).available()).isEqualTo(50L);
+        assertThat(inventoryService.getStock(productId).reserved()).isZero();
+    }
+
+    @Test
+    void adjust_ShouldReturnStockAcrossAllShards() {
+        setStock(0);
+
+        // Возврат 20 единиц по 16 шардам: по одной в каждый и ещё по одной в первые четыре
+        inventoryService.adjust(Map.of(productId, 20L), Map.of());
+
+        assertThat(inventoryService.getStock(productId).available()).isEqualTo(20L);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM product_stock WHERE product_id = ? ORDER BY shard", Long.class, productId))
+                .hasSize(16)
+                .containsOnly(1L, 2L)
+                .filteredOn(quantity -> quantity == 2L).hasSize(4);
+    }
+
+    @Test
+    void adjust_ShouldSkipStockCheckUntilStockIsSet() {
+        // Остаток не устанавливали: заказ проходит, шарды не меняются
+        inventoryService.adjust(Map.of(), Map.of(productId, 5L));
+        var reservation = inventoryService.reserve(request(3L));
+        inventoryService.confirm(reservation.id(), Map.of(productId, 3L));
+
+        assertThat(inventoryService.getStock(productId).available()).isZero();
+
+        setStock(0);
+
+        assertThrows(InsufficientStockException.class,
+                () -> inventoryService.adjust(Map.of(), Map.of(productId, 5L)));
+    }
+
+    private void setStock(long quantity) {
+        var request = new StockRequest();
+        request.setQuantity(quantity);
+        inventoryService.setStock(productId, request);
+    }
+
+    private ReservationRequest request(Long quantity) {
+        var item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+
+        var request = new ReservationRequest();
+        request.setItems(List.of(item));
+        return request;
+    }
+}
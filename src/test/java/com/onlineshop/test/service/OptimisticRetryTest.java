@@ -0,0 +1,86 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.OptimisticRetryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Unit tests
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryTest {
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        optimisticRetry = new OptimisticRetry(transactionManager,
+                new OptimisticRetryProperties(3, Duration.ofMillis(1)));
+    }
+
+    @Test
+    void execute_ShouldRetryConflictInNewTransaction() {
+        // Arrange
+        var calls = new AtomicInteger();
+
+        // Act
+        var result = optimisticRetry.execute(true, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Product", 1L);
+            }
+            return "saved";
+        });
+
+        // Assert
+        assertThat(result).isEqualTo("saved");
+        assertThat(calls.get()).isEqualTo(3);
+
+        // Verify
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void execute_ShouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        var calls = new AtomicInteger();
+
+        // Act + Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.execute(true, () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Product", 1L);
+        }));
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void execute_ShouldNotRetry_WhenClientSentVersion() {
+        // Arrange
+        var calls = new AtomicInteger();
+
+        // Act + Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.execute(false, () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Product", 1L);
+        }));
+        assertThat(calls.get()).isEqualTo(1);
+    }
+}
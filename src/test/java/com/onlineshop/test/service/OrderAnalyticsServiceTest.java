@@ -0,0 +1,95 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.configuration.OrderAnalyticsProperties;
+import com.onlineshop.test.configuration.PaginationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Unit tests
+@ExtendWith(MockitoExtension.class)
+class OrderAnalyticsServiceTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    OrderAnalyticsService orderAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        orderAnalyticsService = new OrderAnalyticsService(jdbcTemplate, transactionManager,
+                new OrderAnalyticsProperties(true, Duration.ofDays(90), 4, 100), new PaginationProperties(50, 500));
+    }
+
+    @Test
+    void rebuild_ShouldKeepOrdersCommittedDuringRebuildExactlyOnce() throws Exception {
+        // Arrange
+        var now = LocalDateTime.now();
+        var snapshotted = event(1L, now.minusMinutes(2), 100L);
+        // created_at раньше границы пересборки, но коммит уже после снимка: в снимок заказ не попал
+        var lateCommitted = event(2L, now.minusMinutes(1), 200L);
+        // Создан и закоммичен во время пересборки
+        var created = event(3L, now.plusMinutes(1), 400L);
+
+        var row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(1L);
+        when(row.getLong("employee_id")).thenReturn(0L);
+        when(row.wasNull()).thenReturn(true);
+        when(row.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(snapshotted.createdAt()));
+        when(row.getLong("amount")).thenReturn(100L);
+
+        var queries = new AtomicInteger();
+        doAnswer(invocation -> {
+            // Первый запрос - заказы: пока снимок читается, после коммита приходят все три события
+            if (queries.getAndIncrement() == 0) {
+                orderAnalyticsService.onOrderCreated(snapshotted);
+                orderAnalyticsService.onOrderCreated(lateCommitted);
+                orderAnalyticsService.onOrderCreated(created);
+                invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        orderAnalyticsService.rebuild();
+
+        // Assert
+        var stats = orderAnalyticsService.getAmountStats(null, null);
+        assertThat(stats.orders()).isEqualTo(3L);
+        assertThat(stats.revenue()).isEqualTo(700L);
+    }
+
+    @Test
+    void onOrderCreated_ShouldAppendToCurrentStore() {
+        // Act
+        orderAnalyticsService.onOrderCreated(event(1L, LocalDateTime.now(), 100L));
+
+        // Assert
+        assertThat(orderAnalyticsService.getAmountStats(null, null).orders()).isEqualTo(1L);
+    }
+
+    private static OrderCreatedEvent event(Long orderId, LocalDateTime createdAt, Long amount) {
+        return new OrderCreatedEvent(orderId, createdAt, amount, null, null, List.of());
+    }
+}
@@ -0,0 +1,86 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.dto.response.EmployeeSalesResponse;
+import com.onlineshop.test.dto.response.ProductSalesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Unit tests
+class OrderColumnStoreTest {
+
+    // Маленькие куски, чтобы запросы шли по нескольким кускам параллельно
+    private static final int CHUNK_SIZE = 4;
+
+    OrderColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OrderColumnStore(CHUNK_SIZE);
+    }
+
+    @Test
+    void productSales_ShouldGroupAcrossChunksWithinRange() {
+        // Arrange
+        for (int second = 0; second < 10; second++) {
+            store.appendItem(second, 100L, 1L, 10L);
+            store.appendItem(second, 200L, 2L, 50L);
+        }
+
+        // Act
+        var sales = store.productSales(2, 8, 10);
+
+        // Assert
+        assertThat(sales).containsExactly(
+                new ProductSalesResponse(200L, 12L, 300L),
+                new ProductSalesResponse(100L, 6L, 60L));
+    }
+
+    @Test
+    void employeeSales_ShouldSkipOrdersWithoutEmployee() {
+        // Arrange
+        store.append(1, 100L, 7L);
+        store.append(2, 300L, 7L);
+        store.append(3, 500L, null);
+
+        // Act
+        var sales = store.employeeSales(0, 10);
+
+        // Assert
+        assertThat(sales).containsExactly(new EmployeeSalesResponse(7L, 2L, 400L));
+    }
+
+    @Test
+    void amountStats_ShouldComputePercentiles() {
+        // Arrange
+        for (int amount = 1; amount <= 100; amount++) {
+            store.append(amount, amount, null);
+        }
+
+        // Act
+        var stats = store.amountStats(0, 1000);
+
+        // Assert
+        assertThat(stats.orders()).isEqualTo(100L);
+        assertThat(stats.revenue()).isEqualTo(5050L);
+        assertThat(stats.p50()).isEqualTo(50L);
+        assertThat(stats.p90()).isEqualTo(90L);
+        assertThat(stats.p99()).isEqualTo(99L);
+        assertThat(stats.max()).isEqualTo(100L);
+    }
+
+    @Test
+    void evictBefore_ShouldDropOnlyFullChunksOutsideWindow() {
+        // Arrange
+        for (int second = 0; second < 10; second++) {
+            store.append(second, 1L, null);
+        }
+
+        // Act
+        store.evictBefore(5);
+
+        // Assert
+        assertThat(store.orders()).isEqualTo(6L);
+    }
+}
@@ -0,0 +1,142 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.ExportProperties;
+import com.onlineshop.test.dto.request.ExportFormat;
+import com.onlineshop.test.dto.request.OrderExportFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Integration tests: fetch-size меньше числа заказов, чтобы курсор читал строки несколькими порциями
+@DataJpaTest(properties = "export.fetch-size=2")
+@Testcontainers
+@Import(OrderExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnableConfigurationProperties(ExportProperties.class)
+class OrderExportServiceTest {
+
+    private static final int ORDERS = 5;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long customerId;
+    private List<Long> orderIds;
+
+    @BeforeEach
+    public void setUp() {
+        // Имя с запятой и кавычками должно попасть в CSV одним экранированным значением
+        customerId = jdbcTemplate.queryForObject(
+                "INSERT INTO customers (name, city) VALUES ('Smith, \"Jr\"', 'Boston') RETURNING id", Long.class);
+        var departmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO departments (name) VALUES ('Sales') RETURNING id", Long.class);
+        var employeeId = jdbcTemplate.queryForObject(
+                "INSERT INTO employees (name, department_id) VALUES ('Anna', ?) RETURNING id", Long.class, departmentId);
+
+        orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            // Последний заказ без клиента и сотрудника
+            var last = i == ORDERS - 1;
+            orderIds.add(jdbcTemplate.queryForObject("""
+                    INSERT INTO orders (created_at, updated_at, amount, customer_id, employee_id)
+                    VALUES (?, ?, ?, ?, ?)
+                    RETURNING id
+                    """, Long.class, CREATED_AT.plusHours(i), CREATED_AT.plusHours(i), 100L + i,
+                    last ? null : customerId, last ? null : employeeId));
+        }
+    }
+
+    @Test
+    void export_ShouldWriteEveryOrderAsNdjsonLine() throws Exception {
+        var lines = export(new OrderExportFilter(null, null, null), ExportFormat.NDJSON);
+
+        assertThat(lines).hasSize(ORDERS);
+        var first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(orderIds.get(0));
+        assertThat(first.get("amount").asLong()).isEqualTo(100L);
+        assertThat(first.get("createdAt").asText()).isEqualTo(CREATED_AT.toString());
+        assertThat(first.get("customerId").asLong()).isEqualTo(customerId);
+        assertThat(first.get("customerName").asText()).isEqualTo("Smith, \"Jr\"");
+        assertThat(first.get("employeeName").asText()).isEqualTo("Anna");
+
+        var last = objectMapper.readTree(lines.get(ORDERS - 1));
+        assertThat(last.get("id").asLong()).isEqualTo(orderIds.get(ORDERS - 1));
+        assertThat(last.get("customerId").isNull()).isTrue();
+        assertThat(last.get("employeeId").isNull()).isTrue();
+    }
+
+    @Test
+    void export_ShouldWriteCsvWithHeaderAndEscapedValues() {
+        var lines = export(new OrderExportFilter(null, null, null), ExportFormat.CSV);
+
+        assertThat(lines).hasSize(ORDERS + 1);
+        assertThat(lines.get(0)).isEqualTo("id,amount,created_at,customer_id,customer_name,employee_id,employee_name");
+        assertThat(lines.get(1)).startsWith(orderIds.get(0) + ",100," + CREATED_AT + "," + customerId + ",")
+                .contains(",\"Smith, \"\"Jr\"\"\",")
+                .endsWith(",Anna");
+        assertThat(lines.get(ORDERS)).isEqualTo(orderIds.get(ORDERS - 1) + ",104," + CREATED_AT.plusHours(4) + ",,,,");
+    }
+
+    @Test
+    void export_ShouldApplyFilter() {
+        var filter = new OrderExportFilter(CREATED_AT.plusHours(1), CREATED_AT.plusHours(3), customerId);
+
+        var lines = export(filter, ExportFormat.NDJSON);
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"id\":" + orderIds.get(1));
+        assertThat(lines.get(1)).contains("\"id\":" + orderIds.get(2));
+    }
+
+    @Test
+    void export_ShouldWriteOnlyHeaderForEmptyResult() {
+        var filter = new OrderExportFilter(CREATED_AT.plusYears(1), null, null);
+
+        assertThat(export(filter, ExportFormat.CSV))
+                .containsExactly("id,amount,created_at,customer_id,customer_name,employee_id,employee_name");
+        assertThat(export(filter, ExportFormat.NDJSON)).isEmpty();
+    }
+
+    private List<String> export(OrderExportFilter filter, ExportFormat format) {
+        var out = new ByteArrayOutputStream();
+        orderExportService.export(filter, format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,218 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.onlineshop.test.configuration.OrderMailProperties;
+import com.onlineshop.test.configuration.PaymentProperties;
+import com.onlineshop.test.repository.CustomerRepository;
+import com.onlineshop.test.repository.MailDeadLetterRepository;
+import com.onlineshop.test.repository.OutboxEvent;
+import com.onlineshop.test.repository.ProductRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Integration tests
+@DataJpaTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "order-mail.batch-size=2"
+})
+@Testcontainers
+@Import({OrderMailService.class, MailTemplates.class, MailDeadLetterRepository.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, MailSenderAutoConfiguration.class})
+@EnableConfigurationProperties({OrderMailProperties.class, PaymentProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderMailServiceTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    // SMTP-сервер в процессе теста вместо настоящего почтового сервера
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderMailService orderMailService;
+
+    @Autowired
+    private MailTemplates mailTemplates;
+
+    @Autowired
+    private PaymentProperties paymentProperties;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MailDeadLetterRepository mailDeadLetterRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long customerId;
+    private long silentCustomerId;
+    private long productId;
+
+    @BeforeEach
+    public void setUp() {
+        customerId = jdbcTemplate.queryForObject(
+                "INSERT INTO customers (name, city, email) VALUES ('John', 'New York', 'john@example.com') RETURNING id",
+                Long.class);
+        silentCustomerId = jdbcTemplate.queryForObject(
+                "INSERT INTO customers (name, city) VALUES ('Jane', 'Boston') RETURNING id", Long.class);
+        productId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (name, price) VALUES ('Console', 500) RETURNING id", Long.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM mail_dead_letters");
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id IN (?, ?)", customerId, silentCustomerId);
+    }
+
+    @Test
+    void handleBatch_ShouldSendRenderedConfirmationsInBatches() throws Exception {
+        var events = LongStream.rangeClosed(1, 5).mapToObj(orderId -> event(orderId, customerId)).toList();
+
+        var failures = orderMailService.handleBatch(events);
+
+        assertThat(failures).isEmpty();
+        var messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(5);
+        assertThat(messages[0].getAllRecipients()[0].toString()).isEqualTo("john@example.com");
+        assertThat(messages[0].getSubject()).startsWith("Заказ №").endsWith("оформлен");
+        assertThat(messages[0].getContent().toString())
+                .contains("Здравствуйте, John!")
+                .contains("- Console x 2: 1000 USD")
+                .contains("Итого: 1000 USD");
+    }
+
+    @Test
+    void handleBatch_ShouldSkipCustomerWithoutEmail() {
+        var failures = orderMailService.handleBatch(List.of(event(1L, silentCustomerId)));
+
+        assertThat(failures).isEmpty();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void handleBatch_ShouldReportFailuresAndDeadLetterWhenSmtpIsDown() {
+        greenMail.stop();
+        var event = event(7L, customerId);
+
+        var failures = orderMailService.handleBatch(List.of(event));
+
+        assertThat(failures).containsKey(event.id());
+
+        // Outbox исчерпал попытки: письмо сохраняется в mail_dead_letters
+        orderMailService.onFailure(event, failures.get(event.id()));
+
+        var deadLetter = jdbcTemplate.queryForMap("SELECT order_id, recipient, subject, error FROM mail_dead_letters");
+        assertThat(deadLetter.get("order_id")).isEqualTo(7L);
+        assertThat(deadLetter.get("recipient")).isEqualTo("john@example.com");
+        assertThat(deadLetter.get("subject")).isEqualTo("Заказ №7 оформлен");
+        assertThat(deadLetter.get("error")).isNotNull();
+    }
+
+    @Test
+    void handleBatch_ShouldRejectBatchesWhenSenderQueueIsFull() {
+        // Один отправитель, очередь на одну пачку, пачка из одного письма; SMTP висит до release
+        var release = new CountDownLatch(1);
+        var mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+        var properties = new OrderMailProperties("no-reply@onlineshop.com", "order-confirmation",
+                1, 1, 1, Duration.ofMillis(200));
+        var service = new OrderMailService(mailSender, mailTemplates, properties, paymentProperties,
+                customerRepository, productRepository, mailDeadLetterRepository, objectMapper);
+        var events = LongStream.rangeClosed(1, 3).mapToObj(orderId -> event(orderId, customerId)).toList();
+
+        try {
+            var failures = service.handleBatch(events);
+
+            // Первая пачка занимает отправителя, вторая ждёт в очереди, третья отклоняется сразу
+            assertThat(failures).hasSize(3);
+            assertThat(failures.get(1L)).isInstanceOf(TimeoutException.class);
+            assertThat(failures.get(2L)).isInstanceOf(TimeoutException.class);
+            assertThat(failures.get(3L)).isInstanceOf(RejectedExecutionException.class);
+
+            // Пачка из очереди отменена по таймауту: после освобождения SMTP она не отправляется
+            release.countDown();
+            verify(mailSender, after(500).times(1)).send(any(MimeMessage[].class));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    private OutboxEvent event(Long orderId, Long customer) {
+        var payload = new OrderCreatedEvent(orderId, LocalDateTime.now(), 1000L, null, customer,
+                List.of(new OrderCreatedEvent.Line(productId, 2L, 1000L)));
+        try {
+            return new OutboxEvent(orderId, OrderCreatedEvent.TYPE, orderId, OrderMailService.NAME,
+                    objectMapper.writeValueAsString(payload), 1);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.onlineshop.test.service;
+
+import com.onlineshop.test.dto.request.OrderItemRequest;
+import com.onlineshop.test.dto.request.OrderRequest;
+import com.onlineshop.test.dto.response.OrderResponse;
+import com.onlineshop.test.entity.Customer;
+import com.onlineshop.test.entity.Employee;
+import com.onlineshop.test.entity.Order;
+import com.onlineshop.test.entity.OrderStatus;
+import com.onlineshop.test.entity.Product;
+import com.onlineshop.test.exception.OrderAmountOverflowException;
+import com.onlineshop.test.exception.ProductNotFoundException;
+import com.onlineshop.test.mapper.OrderMapper;
+import com.onlineshop.test.repository.CustomerRepository;
+import com.onlineshop.test.repository.EmployeeRepository;
+import com.onlineshop.test.repository.OrderRepository;
+import com.onlineshop.test.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Unit tests
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    OrderMapper orderMapper;
+    @Mock
+    OrderRepository orderRepository;
+    @Mock
+    CustomerRepository customerRepository;
+    @Mock
+    EmployeeRepository employeeRepository;
+    @Mock
+    ProductRepository productRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    InventoryService inventoryService;
+    @Mock
+    OutboxService outboxService;
+
+    @InjectMocks
+    OrderService orderService;
+
+    @Captor
+    ArgumentCaptor<Order> orderCaptor;
+
+    OrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new OrderRequest();
+        request.setCustomerId(1L);
+        request.setEmployeeId(2L);
+        request.setItems(List.of(item(10L, 2L), item(20L, 3L)));
+
+        when(orderMapper.toEntity(request)).thenReturn(new Order());
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(employeeRepository.findById(2L)).thenReturn(Optional.of(new Employee()));
+    }
+
+    @Test
+    void createOrder_ShouldComputeAmountFromProductPrices() {
+        // Arrange
+        when(productRepository.findAllById(Set.of(10L, 20L)))
+                .thenReturn(List.of(product(10L, 100L), product(20L, 5L)));
+        when(orderMapper.toResponse(any(Order.class)))
+                .thenReturn(new OrderResponse(1L, 215L, null, null, null, OrderStatus.PENDING_PAYMENT, 0L));
+
+        // Act
+        orderService.createOrder(request);
+
+        // Assert
+        verify(orderRepository, times(1)).save(orderCaptor.capture());
+        var order = orderCaptor.getValue();
+        assertThat(order.getAmount()).isEqualTo(215L);
+        assertThat(order.getCreatedAt()).isNotNull();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+        assertThat(order.getItems())
+                .hasSize(2)
+                .allSatisfy(orderItem -> assertThat(orderItem.getOrder()).isSameAs(order));
+
+        // Verify
+        verify(productRepository, times(1)).findAllById(Set.of(10L, 20L));
+        verify(inventoryService, times(1)).adjust(Map.of(), Map.of(10L, 2L, 20L, 3L));
+        verify(eventPublisher, times(1)).publishEvent(any(OrderCreatedEvent.class));
+        verify(outboxService, times(1)).enqueue(eq(OrderCreatedEvent.TYPE), any(), any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void createOrder_ShouldThrowProductNotFoundException_WhenProductDoesNotExist() {
+        // Arrange
+        when(productRepository.findAllById(Set.of(10L, 20L)))
+                .thenReturn(List.of(product(10L, 100L)));
+
+        // Act + Assert
+        assertThrows(ProductNotFoundException.class, () -> orderService.createOrder(request));
+
+        // Verify
+        verify(inventoryService, never()).adjust(any(), any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrder_ShouldThrowOrderAmountOverflowException_WhenAmountExceedsLong() {
+        // Arrange
+        when(productRepository.findAllById(Set.of(10L, 20L)))
+                .thenReturn(List.of(product(10L, Long.MAX_VALUE / 2), product(20L, 5L)));
+
+        // Act + Assert
+        assertThrows(OrderAmountOverflowException.class, () -> orderService.createOrder(request));
+
+        // Verify
+        verify(inventoryService, never()).adjust(any(), any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    private static OrderItemRequest item(Long productId, Long quantity) {
+        var item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Product product(Long id, Long price) {
+        var product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        return product;
+    }
+}
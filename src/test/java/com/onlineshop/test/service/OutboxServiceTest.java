@@ -0,0 +1,289 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlineshop.test.configuration.OutboxProperties;
+import com.onlineshop.test.repository.OutboxEvent;
+import com.onlineshop.test.repository.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Integration tests
+@DataJpaTest(properties = "outbox.max-attempts=3")
+@Testcontainers
+@Import({OutboxService.class, OutboxRepository.class, OutboxServiceTest.StubHandlers.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnableConfigurationProperties(OutboxProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxServiceTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private StubHandler mailHandler;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        mailHandler.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @Test
+    void dispatch_ShouldDeliverCommittedEventToEverySubscribedHandler() {
+        inTransaction(() -> outboxService.enqueue("order.created", 42L, new Payload("ok")));
+
+        // По строке на каждого подписчика; обработчик другого типа событий строку не получает
+        assertThat(count()).isEqualTo(2);
+
+        outboxService.dispatch();
+
+        assertThat(mailHandler.delivered)
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.aggregateId()).isEqualTo(42L);
+                    assertThat(event.payload()).contains("\"value\":\"ok\"");
+                    assertThat(event.attempt()).isEqualTo(1);
+                });
+        assertThat(count()).isZero();
+    }
+
+    @Test
+    void enqueue_ShouldBeRolledBackWithBusinessTransaction() {
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+            outboxService.enqueue("order.created", 42L, new Payload("ok"));
+            throw new IllegalStateException("checkout failed");
+        }));
+
+        assertThat(count()).isZero();
+    }
+
+    @Test
+    void enqueue_ShouldRequireTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxService.enqueue("order.created", 42L, new Payload("ok")));
+    }
+
+    @Test
+    void dispatch_ShouldRetryFailedHandlerWithBackoff() {
+        mailHandler.failures.set(1);
+        inTransaction(() -> outboxService.enqueue("order.created", 42L, new Payload("ok")));
+
+        var before = LocalDateTime.now();
+        outboxService.dispatch();
+
+        // Неудачная попытка откладывает строку на initial-backoff и не мешает другому обработчику
+        assertThat(mailHandler.delivered).isEmpty();
+        assertThat(count()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT available_at FROM outbox_events", LocalDateTime.class)).isAfter(before);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM outbox_events", String.class))
+                .contains("mail provider unavailable");
+
+        makeAvailable();
+        outboxService.dispatch();
+
+        assertThat(mailHandler.delivered).singleElement().satisfies(event -> assertThat(event.attempt()).isEqualTo(2));
+        assertThat(count()).isZero();
+    }
+
+    @Test
+    void dispatch_ShouldMarkEventFailedAfterMaxAttempts() {
+        mailHandler.failures.set(Integer.MAX_VALUE);
+        inTransaction(() -> outboxService.enqueue("order.created", 42L, new Payload("ok")));
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            outboxService.dispatch();
+            makeAvailable();
+        }
+
+        assertThat(mailHandler.attempts.get()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE handler = 'mail' AND failed_at IS NOT NULL", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void renew_ShouldSkipEventsReclaimedByAnotherDispatcher() {
+        inTransaction(() -> outboxService.enqueue("order.created", 42L, new Payload("ok")));
+        var now = LocalDateTime.now();
+        var claimed = outboxRepository.claim(now, now.plusSeconds(1), 10);
+
+        // Аренда истекла, и строку mail забрал другой диспетчер: номер попытки уже другой
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1 WHERE handler = 'mail'");
+
+        var renewed = outboxRepository.renew(claimed, now.plusMinutes(1));
+
+        assertThat(renewed).singleElement().satisfies(event -> assertThat(event.handler()).isEqualTo("payment"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT locked_until FROM outbox_events WHERE handler = 'payment'", LocalDateTime.class))
+                .isAfter(now.plusSeconds(30));
+    }
+
+    @Test
+    void outcome_ShouldNotTouchEventsReclaimedByAnotherDispatcher() {
+        inTransaction(() -> outboxService.enqueue("order.created", 42L, new Payload("ok")));
+        var now = LocalDateTime.now();
+        var claimed = outboxRepository.claim(now, now.plusSeconds(1), 10);
+
+        // Все строки забрал другой диспетчер и держит их под своей арендой
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1, locked_until = ?", now.plusMinutes(1));
+
+        for (var event : claimed) {
+            assertThat(outboxRepository.delete(event)).isFalse();
+            assertThat(outboxRepository.reschedule(event, now, "late")).isFalse();
+            assertThat(outboxRepository.fail(event, now, "late")).isFalse();
+        }
+
+        assertThat(count()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE locked_until IS NOT NULL AND failed_at IS NULL",
+                Integer.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void constructor_ShouldRejectLeaseShorterThanHandler() {
+        var slowHandler = new StubHandler("mail", "order.created") {
+            @Override
+            public Duration maxDuration() {
+                return outboxProperties.lease();
+            }
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> new OutboxService(outboxRepository, outboxProperties, objectMapper, List.of(slowHandler)));
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_events", Integer.class);
+    }
+
+    // Снимает задержку повтора, не дожидаясь initial-backoff
+    private void makeAvailable() {
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = created_at WHERE failed_at IS NULL");
+    }
+
+    record Payload(String value) {
+    }
+
+    // Локальный обработчик вместо почты и платёжного шлюза: падает заданное число раз, затем запоминает события
+    static class StubHandler implements OutboxEventHandler {
+
+        final String name;
+        final String eventType;
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<OutboxEvent> delivered = new CopyOnWriteArrayList<>();
+
+        StubHandler(String name, String eventType) {
+            this.name = name;
+            this.eventType = eventType;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean supports(String type) {
+            return eventType.equals(type);
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            attempts.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("mail provider unavailable");
+            }
+            delivered.add(event);
+        }
+
+        void reset() {
+            failures.set(0);
+            attempts.set(0);
+            delivered.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class StubHandlers {
+
+        @Bean
+        StubHandler mailHandler() {
+            return new StubHandler("mail", "order.created");
+        }
+
+        @Bean
+        StubHandler paymentHandler() {
+            return new StubHandler("payment", "order.created");
+        }
+
+        @Bean
+        StubHandler auditHandler() {
+            return new StubHandler("audit", "order.deleted");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.onlineshop.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.onlineshop.test.configuration.PaymentProperties;
+import com.onlineshop.test.entity.OrderStatus;
+import com.onlineshop.test.repository.OrderRepository;
+import com.onlineshop.test.repository.OutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Unit tests
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    @Mock
+    PaymentGateway paymentGateway;
+    @Mock
+    OrderRepository orderRepository;
+
+    ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    PaymentService paymentService;
+
+    // Время создания заказа из события - ключ секции в UPDATE статуса
+    LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        // Пачки по 2 заказа, таймаут 200 мс, цепь размыкается после 2 сбоев подряд
+        var properties = new PaymentProperties("mock", "USD", new BigDecimal("10.00"), 2, 2,
+                Duration.ofMillis(200),
+                new PaymentProperties.CircuitBreaker(2, Duration.ofMinutes(1)),
+                new PaymentProperties.Mock(Duration.ZERO, 100));
+        paymentService = new PaymentService(paymentGateway, properties, orderRepository, objectMapper);
+
+        lenient().when(paymentGateway.maxBatchSize()).thenReturn(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentService.shutdown();
+    }
+
+    @Test
+    void handleBatch_ShouldAuthorizeOrdersInGatewayBatches() throws Exception {
+        // Arrange
+        when(paymentGateway.authorize(anyList())).thenAnswer(invocation -> {
+            List<PaymentGateway.Request> requests = invocation.getArgument(0);
+            return requests.stream()
+                    .map(request -> new PaymentGateway.Authorization(request.orderId(), true, "ref", null))
+                    .toList();
+        });
+
+        // Act
+        var failures = paymentService.handleBatch(List.of(event(1L, 100L), event(2L, 200L), event(3L, 300L)));
+
+        // Assert
+        assertThat(failures).isEmpty();
+
+        // Verify
+        verify(paymentGateway, times(2)).authorize(anyList());
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            verify(orderRepository, times(1))
+                    .updateStatus(eq(orderId), eq(createdAt), eq(OrderStatus.PENDING_PAYMENT), eq(OrderStatus.PAID),
+                            any());
+        }
+    }
+
+    @Test
+    void handleBatch_ShouldDeclineAmountBelowMinimumWithoutCallingGateway() throws Exception {
+        // Act
+        var failures = paymentService.handleBatch(List.of(event(1L, 5L)));
+
+        // Assert
+        assertThat(failures).isEmpty();
+
+        // Verify
+        verify(paymentGateway, never()).authorize(anyList());
+        verify(orderRepository, times(1))
+                .updateStatus(eq(1L), eq(createdAt), eq(OrderStatus.PENDING_PAYMENT), eq(OrderStatus.PAYMENT_DECLINED),
+                        any());
+    }
+
+    @Test
+    void handleBatch_ShouldTimeOutSlowGatewayAndOpenCircuit() throws Exception {
+        // Arrange
+        when(paymentGateway.authorize(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(Duration.ofSeconds(2));
+            return List.of();
+        });
+
+        // Act
+        var first = paymentService.handleBatch(List.of(event(1L, 100L)));
+        var second = paymentService.handleBatch(List.of(event(2L, 100L)));
+        var third = paymentService.handleBatch(List.of(event(3L, 100L)));
+
+        // Assert
+        assertThat(first.get(1L)).isInstanceOf(TimeoutException.class);
+        assertThat(second.get(2L)).isInstanceOf(TimeoutException.class);
+        assertThat(third.get(3L)).hasMessageContaining("circuit is open");
+
+        // Verify
+        verify(paymentGateway, times(2)).authorize(anyList());
+        verify(orderRepository, never()).updateStatus(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void onFailure_ShouldMarkOrderFailedWithinItsPartition() throws Exception {
+        // Act
+        paymentService.onFailure(event(4L, 100L), new IllegalStateException("gateway unavailable"));
+
+        // Verify
+        verify(orderRepository, times(1))
+                .updateStatus(eq(4L), eq(createdAt), eq(OrderStatus.PENDING_PAYMENT), eq(OrderStatus.PAYMENT_FAILED),
+                        any());
+    }
+
+    private OutboxEvent event(Long orderId, Long amount) throws Exception {
+        var payload = new OrderCreatedEvent(orderId, createdAt, amount, 2L, 3L, List.of());
+        return new OutboxEvent(orderId, OrderCreatedEvent.TYPE, orderId, PaymentService.NAME,
+                objectMapper.writeValueAsString(payload), 1);
+    }
+}